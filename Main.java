@@ -1,16 +1,27 @@
 import java.io.File;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import files.AnswerWriter;
 import files.FileManipulation;
+import graph.EdgeConsumer;
 import graph.Graph;
 import graph.Kruskal;
+import graph.Metrics;
 
 class Main {
+  private final static int LOADING_THREADS = 2; // Number of threads parsing files and building graphs
+  private final static int MST_THREADS = Runtime.getRuntime().availableProcessors(); // Number of threads computing MSTs
+  private final static int MAX_GRAPHS_IN_FLIGHT = 4; // Maximum number of graphs held in memory at once
+
   public static void main(String[] args) {
-    // Create an empty list to store the graphs
-    List<Graph<Integer>> graphs = new ArrayList<>();
     // Define an array of degrees representing the number of vertices in each graph
     int[] degrees = new int[] {500};
     // Record the start time
@@ -21,27 +32,116 @@ class Main {
     Instant end = Instant.now();
     // Print the time taken to generate the set of files
     System.out.println("Time to generate the set of files: " + Duration.between(start, end));
-    // Read the adjacent files from the generated set and create graphs from them
-    for(File f : FileManipulation.readFromAdjacentFilesSet("files\\adjSet.txt"))
-      graphs.add(new Graph<>("files\\" + f.toString(), true));
-
-    // Create a StringBuilder to store the MST results
-    StringBuilder sb = new StringBuilder();
-    // Iterate over each graph in the list
-    int i = 0;
-    for(Graph<Integer> graph : graphs){
-      // Record the start time
-      start = Instant.now();
-      // Compute the minimum spanning tree (MST) of the graph using Kruskal's algorithm
-      sb.append(Kruskal.MST(graph)).append("\n");
-      // Record the end time
-      end = Instant.now();
-      // Checks if i is still in the degrees index boudanry
-      if(i < degrees.length)
-        // Print the time taken to run Kruskal's MST for the current graph
-        System.out.println(String.format("Time to run Kruskal's MST for a %d vertice graph: %s", degrees[i++], Duration.between(start, end).toString()));
+    // Open the answer file, the MSTs are streamed into it as they are computed
+    try (AnswerWriter answer = FileManipulation.openAnswer()) {
+      // Read the adjacent files from the generated set, build their graphs and compute their MSTs in a pipeline
+      runPipeline(FileManipulation.readFromAdjacentFilesSet("files\\adjSet.txt"), answer);
+    } catch (IOException e) {
+      System.out.println("An error occurred while writing the file: " + e.getMessage());
+    }
+    // Print the counters of the graph operations, when the JVM runs with -Dgraph.metrics=true
+    if(Metrics.ENABLED) Metrics.report();
+  }
+
+  /**
+    Loads every file of the set and streams the MST of its graph to the answer file, overlapping the stages of different files.
+
+    Desc: Each file goes through three stages: parsing the file into a `Graph` on the loading executor, running `Kruskal.MST` on the MST executor into a `Tree` buffer,
+    then writing the buffered tree to the `answer` writer.
+    While one graph is being processed by Kruskal, the next files are already being parsed, and the MSTs of different files run at the same time on the `MST_THREADS` workers, so I/O and computation overlap.
+    Only the writes are chained in the order of `files`, so the trees are written in that order, one per line, and only the |V| - 1 edges of each tree are buffered until its turn.
+    A `Semaphore` with `MAX_GRAPHS_IN_FLIGHT` permits provides backpressure: a file is only submitted once a permit is free,
+    and the permit is released when the MST of its graph is computed, so at most that many graphs are held in memory at once, whatever the size of the set.
+    If a file cannot be loaded or its MST fails, an error message is printed and no tree is written for it, the following files are still processed.
+
+    @param files The files of the set, relative to the `files` directory.
+    @param answer The writer receiving the MST of each file.
+  */
+
+  private static void runPipeline(List<File> files, AnswerWriter answer) {
+    ExecutorService loaders = Executors.newFixedThreadPool(LOADING_THREADS);
+    ExecutorService workers = Executors.newFixedThreadPool(MST_THREADS);
+    Semaphore inFlight = new Semaphore(MAX_GRAPHS_IN_FLIGHT);
+    CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+    try {
+      for(File f : files) {
+        // Wait until there is room for one more graph in memory
+        inFlight.acquireUninterruptibly();
+        CompletableFuture<Tree> computed = CompletableFuture
+          .supplyAsync(() -> new Graph<Integer>("files\\" + f.toString(), true), loaders)
+          .thenApplyAsync(graph -> {
+            // Record the start time
+            Instant start = Instant.now();
+            // Compute the minimum spanning tree (MST) of the graph using Kruskal's algorithm, buffering its edges as they are accepted
+            Tree tree = new Tree();
+            Kruskal.MST(graph, tree);
+            // Print the time taken to run Kruskal's MST for the current graph
+            System.out.println(String.format("Time to run Kruskal's MST for a %d vertice graph: %s", graph.getVertices().size(), Duration.between(start, Instant.now()).toString()));
+            return tree;
+          }, workers);
+        // Free the room of this graph once its MST is computed, even if it failed
+        computed.whenComplete((tree, error) -> inFlight.release());
+        // Write the tree once the previous one is written, a failed file is reported and skipped so that the next ones are still written
+        previous = previous.thenCombine(computed.handle((tree, error) -> {
+            if(error != null) report(f, error);
+            return tree;
+          }), (done, tree) -> {
+            if(tree != null) tree.writeTo(answer);
+            return (Void) null;
+          })
+          .exceptionally(error -> {
+            report(f, error);
+            return null;
+          });
+      }
+      previous.join();
+    } finally {
+      loaders.shutdown();
+      workers.shutdown();
+    }
+  }
+
+  /**
+    Prints the error that stopped the processing of a file.
+  */
+
+  private static void report(File f, Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    System.out.println(String.format("An error occurred while processing %s, its MST was skipped: %s", f, cause));
+  }
+
+  /**
+    The edges of one Minimum Spanning Tree, buffered in primitive arrays until the tree can be written.
+  */
+
+  private static class Tree implements EdgeConsumer<Integer> {
+    private int size; // number of edges received
+    private int[] sources = new int[16], targets = new int[16], weights = new int[16];
+
+    /**
+      Appends an accepted edge, the graphs of the set are weighted so the weight is never null.
+    */
+
+    public void accept(Integer source, Integer target, Integer weight) {
+      if(this.size == this.sources.length) {
+        int capacity = this.size * 2;
+        this.sources = Arrays.copyOf(this.sources, capacity);
+        this.targets = Arrays.copyOf(this.targets, capacity);
+        this.weights = Arrays.copyOf(this.weights, capacity);
+      }
+      this.sources[this.size] = source;
+      this.targets[this.size] = target;
+      this.weights[this.size++] = weight;
+    }
+
+    /**
+      Writes the tree on its own line of the answer file, its edges in the order they were accepted.
+    */
+
+    void writeTo(AnswerWriter answer) {
+      answer.beginTree();
+      for(int i = 0; i < this.size; i++) answer.edge(this.sources[i], this.targets[i], this.weights[i]);
+      answer.endTree();
     }
-    // Save the MST results to a file
-    FileManipulation.saveAnswer(sb.toString());
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package bench;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import graph.ConcurrentDisjointSet;
+import graph.DisjointSet;
+import graph.IntDisjointSet;
+
+/**
+  Compares the union-find implementations on the same random sequence of operations.
+
+  Desc: Each invocation creates a fresh set of `size` elements, then runs `size` random unions followed by `size` random finds,
+  so the numbers include both the linking and the path compression work, as in a Kruskal sweep.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisjointSetBenchmark {
+  @Param({"1000", "100000"})
+  public int size; // number of elements
+
+  private int[] pairs; // the elements of each union, two per union
+  private int[] queries; // the elements of each find
+
+  @Setup
+  public void setup(){
+    SplittableRandom random = new SplittableRandom(42);
+    this.pairs = random.ints(2L * this.size, 0, this.size).toArray();
+    this.queries = random.ints(this.size, 0, this.size).toArray();
+  }
+
+  @Benchmark
+  public void disjointSet(Blackhole blackhole){
+    DisjointSet<Integer> set = new DisjointSet<>();
+    for(int i = 0; i < this.size; i++) set.makeSet(i);
+    for(int i = 0; i < this.pairs.length; i += 2) set.union(this.pairs[i], this.pairs[i + 1]);
+    for(int q : this.queries) blackhole.consume(set.find(q));
+  }
+
+  @Benchmark
+  public void intDisjointSet(Blackhole blackhole){
+    IntDisjointSet set = new IntDisjointSet(this.size);
+    for(int i = 0; i < this.pairs.length; i += 2) set.union(this.pairs[i], this.pairs[i + 1]);
+    for(int q : this.queries) blackhole.consume(set.find(q));
+  }
+
+  @Benchmark
+  public void concurrentDisjointSet(Blackhole blackhole){
+    ConcurrentDisjointSet set = new ConcurrentDisjointSet(this.size);
+    for(int i = 0; i < this.pairs.length; i += 2) set.union(this.pairs[i], this.pairs[i + 1]);
+    for(int q : this.queries) blackhole.consume(set.find(q));
+  }
+}
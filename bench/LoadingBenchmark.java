@@ -0,0 +1,73 @@
+package bench;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import files.FileManipulation;
+import graph.CSRGraph;
+import graph.Graph;
+
+/**
+  Measures the cost of turning an adjacency matrix file into something the algorithms can use.
+
+  Desc: A random matrix of `size` vertices and `density` is written once per trial to a temporary file, then each benchmark parses it:
+  the `Scanner` based `readFile`, `readFile` followed by `turnInto2DArray`, the memory-mapped `readMatrixMapped`,
+  the full `Graph.readAdjacentMatrix` and the streaming `CSRGraph.readAdjacentMatrix`.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadingBenchmark {
+  @Param({"100", "500", "1000"})
+  public int size; // number of vertices of the matrix
+
+  @Param({"0.1", "1.0"})
+  public double density; // probability that two vertices are connected
+
+  private String path; // path of the temporary matrix file
+
+  @Setup
+  public void setup(){
+    File file = Matrices.write(Matrices.random(this.size, this.density, 10, 42));
+    this.path = file.getPath();
+  }
+
+  @Benchmark
+  public List<Integer> readFile(){
+    return FileManipulation.readFile(this.path);
+  }
+
+  @Benchmark
+  public Object[][] readFileInto2DArray(){
+    return FileManipulation.turnInto2DArray(FileManipulation.readFile(this.path));
+  }
+
+  @Benchmark
+  public int[] readMatrixMapped(){
+    return FileManipulation.readMatrixMapped(this.path);
+  }
+
+  @Benchmark
+  public Graph<Integer> graphReadAdjacentMatrix(){
+    return new Graph<>(this.path, true);
+  }
+
+  @Benchmark
+  public CSRGraph<Integer> csrReadAdjacentMatrix(){
+    return CSRGraph.readAdjacentMatrix(this.path, false);
+  }
+}
@@ -0,0 +1,96 @@
+package bench;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import graph.Boruvka;
+import graph.CSRGraph;
+import graph.FilterKruskal;
+import graph.Graph;
+import graph.Kruskal;
+import graph.Prim;
+
+/**
+  Compares the MST engines on the same random graphs.
+
+  Desc: A random matrix of `size` vertices and `density` is built once per trial, both as a `Graph` (as `readAdjacentMatrix` would build it) and as its frozen `CSRGraph`.
+  The `Graph` benchmarks include the cost of freezing, the `CSRGraph` ones do not, and `primMatrix` works on the raw matrix.
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MSTBenchmark {
+  @Param({"100", "500", "1000"})
+  public int size; // number of vertices of the graph
+
+  @Param({"0.1", "1.0"})
+  public double density; // probability that two vertices are connected
+
+  private int[][] matrix; // adjacency matrix of the graph
+  private Graph<Integer> graph; // object graph built from the matrix
+  private CSRGraph<Integer> frozen; // frozen copy of the graph
+
+  @Setup
+  public void setup(){
+    this.matrix = Matrices.random(this.size, this.density, 10, 42);
+    this.graph = new Graph<>(false, true);
+    this.graph.initializeGraph(this.size);
+    for(int i = 0; i < this.size; i++)
+      for(int j = 0; j < this.size; j++)
+        if(this.matrix[i][j] != 0) this.graph.putEdge(i, j, this.matrix[i][j]);
+    this.frozen = this.graph.freeze();
+  }
+
+  @Benchmark
+  public Set<?> kruskal(){
+    return Kruskal.MST(this.graph);
+  }
+
+  @Benchmark
+  public Set<?> kruskalComparison(){
+    return Kruskal.MST(this.graph, Kruskal.Strategy.COMPARISON);
+  }
+
+  @Benchmark
+  public Set<?> kruskalPacked(){
+    return Kruskal.MST(this.graph, Kruskal.Strategy.PACKED);
+  }
+
+  @Benchmark
+  public Set<?> filterKruskal(){
+    return FilterKruskal.MST(this.graph);
+  }
+
+  @Benchmark
+  public Set<?> filterKruskalFrozen(){
+    return FilterKruskal.MST(this.frozen, 1);
+  }
+
+  @Benchmark
+  public Set<?> boruvkaFrozen(){
+    return Boruvka.MST(this.frozen, 1);
+  }
+
+  @Benchmark
+  public Set<?> primFrozen(){
+    return Prim.MST(this.frozen);
+  }
+
+  @Benchmark
+  public int[] primMatrix(){
+    return Prim.MST(this.matrix);
+  }
+}
@@ -0,0 +1,59 @@
+package bench;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+abstract class Matrices {
+  /**
+    Generates a random symmetric adjacency matrix.
+
+    Desc: Every pair of distinct vertices is connected with probability `density`, with a weight drawn uniformly from 1 to `boundary`.
+    The diagonal is 0 (no self-loops). The generator is seeded so that every fork of a benchmark sees the same graph.
+
+    @param n The number of vertices.
+    @param density The probability that two vertices are connected.
+    @param boundary The largest weight.
+    @param seed The seed of the generator.
+    @return The adjacency matrix.
+  */
+
+  static int[][] random(int n, double density, int boundary, long seed){
+    SplittableRandom random = new SplittableRandom(seed);
+    int[][] matrix = new int[n][n];
+    for(int i = 0; i < n; i++)
+      for(int j = i + 1; j < n; j++)
+        if(random.nextDouble() < density)
+          matrix[i][j] = matrix[j][i] = random.nextInt(boundary) + 1;
+    return matrix;
+  }
+
+  /**
+    Writes an adjacency matrix to a temporary file in the text format read by `FileManipulation.readFile`.
+
+    @param matrix The adjacency matrix.
+    @return The temporary file, deleted when the JVM exits.
+  */
+
+  static File write(int[][] matrix){
+    try {
+      File file = File.createTempFile("adj", ".txt");
+      file.deleteOnExit();
+      try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+        writer.write(matrix.length + "\n");
+        for(int[] row : matrix){
+          for(int w : row){
+            writer.write(Integer.toString(w));
+            writer.write(' ');
+          }
+          writer.write('\n');
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package files;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public class AnswerWriter implements Closeable {
+  private final BufferedWriter writer; // buffered writer of the answer file
+  private final boolean directed; // indicates whether the edges are written as directed or undirected.
+  private boolean firstEdge; // indicates whether no edge was written yet in the current tree
+
+  /**
+    Opens an answer file for streaming Minimum Spanning Trees into it.
+
+    Desc: This constructor opens a `BufferedWriter` on the file at `path`, truncating it. 
+    The trees are written in the same text format as the `toString` of a set of edges, one tree per line, 
+    so the file is identical to the one `FileManipulation.saveAnswer` writes from the concatenated strings, 
+    but each edge is appended piece by piece as it is produced, without `String.format` nor an intermediate set or string.
+
+    @param path The path of the answer file.
+    @param directed Specifies whether the edges are written as directed (true) or undirected (false).
+    @throws UncheckedIOException if the file cannot be opened.
+  */
+
+  public AnswerWriter(String path, boolean directed){
+    try {
+      this.writer = new BufferedWriter(new FileWriter(path));
+    } catch (IOException e) {
+      throw new UncheckedIOException("An error occurred while opening the file: " + e.getMessage(), e);
+    }
+    this.directed = directed;
+  }
+
+  /**
+    Starts a new tree, on its own line.
+
+    @throws UncheckedIOException if an error occurs during the file writing process.
+  */
+
+  public void beginTree(){
+    write("[");
+    this.firstEdge = true;
+  }
+
+  /**
+    Appends an edge to the current tree, formatted as "[{[data: source], [data: target]} weight: weight]".
+
+    Desc: This method has the shape of `graph.EdgeConsumer`, so `writer::edge` can be passed directly to the MST algorithms.
+
+    @param source The data value of the source vertex.
+    @param target The data value of the target vertex.
+    @param weight The weight of the edge.
+    @throws UncheckedIOException if an error occurs during the file writing process.
+  */
+
+  public void edge(Object source, Object target, Integer weight){
+    if(!this.firstEdge) write(", ");
+    this.firstEdge = false;
+    write("[{[data: ");
+    write(String.valueOf(source));
+    write(this.directed ? "] -> [data: " : "], [data: ");
+    write(String.valueOf(target));
+    write("]} weight: ");
+    write(String.valueOf(weight));
+    write("]");
+  }
+
+  /**
+    Ends the current tree and its line.
+
+    @throws UncheckedIOException if an error occurs during the file writing process.
+  */
+
+  public void endTree(){
+    write("]\n");
+  }
+
+  /**
+    Flushes and closes the answer file.
+
+    @throws IOException if an error occurs while flushing or closing the file.
+  */
+
+  @Override
+  public void close() throws IOException {
+    this.writer.close();
+  }
+
+  private void write(String str){
+    try {
+      this.writer.write(str);
+    } catch (IOException e) {
+      throw new UncheckedIOException("An error occurred while writing the file: " + e.getMessage(), e);
+    }
+  }
+}
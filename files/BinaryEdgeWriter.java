@@ -0,0 +1,114 @@
+package files;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class BinaryEdgeWriter implements EdgeSink, Closeable {
+  private final static int MAGIC = 0x45545345; // "ESTE" read as a little-endian int
+  private final static int TREE = -1; // Tag starting a new tree, vertex ids are never negative
+  private final static int BUFFER_SIZE = 1 << 16; // The size of the buffer used to write the file
+  private final FileChannel channel; // channel of the edge file
+  private final ByteBuffer buffer; // reusable buffer of pending records
+
+  /**
+    Opens a binary edge file for streaming edges into it.
+
+    Desc: The file starts with a magic int, followed by little-endian int records:
+      - `begin(vertices)` writes the tag -1 followed by the number of vertices, starting a new tree (or graph).
+      - `edge(source, target, weight)` writes the three ints of the edge.
+    Records are gathered in a direct buffer and written to the channel when it is full, so every edge costs 12 bytes and no allocation.
+
+    @param path The path of the edge file.
+    @throws UncheckedIOException if the file cannot be opened.
+  */
+
+  public BinaryEdgeWriter(String path){
+    try {
+      this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("An error occurred while opening the file: " + e.getMessage(), e);
+    }
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    this.buffer.putInt(MAGIC);
+  }
+
+  @Override
+  public void begin(int vertices){
+    ensure(8);
+    this.buffer.putInt(TREE).putInt(vertices);
+  }
+
+  @Override
+  public void edge(int source, int target, int weight){
+    ensure(12);
+    this.buffer.putInt(source).putInt(target).putInt(weight);
+  }
+
+  /**
+    Flushes the pending records and closes the edge file.
+
+    @throws IOException if an error occurs while writing or closing the file.
+  */
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      this.channel.close();
+    }
+  }
+
+  /**
+    Reads a binary edge file written by a `BinaryEdgeWriter`, replaying its records to a sink.
+
+    Desc: Each tree tag is passed to `sink.begin` and each edge to `sink.edge`, in the order they were written.
+    If the file cannot be read, an error message is printed and `false` is returned.
+
+    @param path The path of the edge file.
+    @param sink The sink receiving the records.
+    @return true if the file was read, false if an I/O error occurred.
+    @throws IllegalArgumentException if the file is not a binary edge file or is truncated.
+  */
+
+  public static boolean read(String path, EdgeSink sink){
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+      if(buffer.remaining() < 4 || buffer.getInt() != MAGIC) throw new IllegalArgumentException("Not a binary edge file: " + path);
+      while(buffer.hasRemaining()){
+        if(buffer.remaining() < 8) throw new IllegalArgumentException("Truncated binary edge file: " + path);
+        int first = buffer.getInt();
+        if(first == TREE){
+          sink.begin(buffer.getInt());
+          continue;
+        }
+        if(buffer.remaining() < 8) throw new IllegalArgumentException("Truncated binary edge file: " + path);
+        sink.edge(first, buffer.getInt(), buffer.getInt());
+      }
+      return true;
+    } catch (IOException e) {
+      System.out.printf("An error occurred trying to read %s.\n", path);
+      e.printStackTrace();
+    }
+    return false;
+  }
+
+  private void ensure(int bytes){
+    if(this.buffer.remaining() < bytes) flush();
+  }
+
+  private void flush(){
+    try {
+      this.buffer.flip();
+      while(this.buffer.hasRemaining()) this.channel.write(this.buffer);
+      this.buffer.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException("An error occurred while writing the file: " + e.getMessage(), e);
+    }
+  }
+}
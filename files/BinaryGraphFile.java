@@ -0,0 +1,288 @@
+package files;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public abstract class BinaryGraphFile {
+  private final static int MAGIC = 0x48505247; // "GRPH" read as a little-endian int
+  private final static byte VERSION = 1; // The version of the format written by this class
+  private final static int DIRECTED = 1; // Header flag set when the graph is directed
+  private final static int WEIGHTED = 2; // Header flag set when the arcs carry weights
+  private final static int COMPRESSED = 4; // Header flag set when the rows are varint-delta encoded
+  private final static int HEADER_SIZE = 16; // magic, version, flags, 2 reserved bytes, vertex count, arc count
+  private final static int BUFFER_SIZE = 1 << 16; // The size of the buffer used to write the file
+
+  /**
+    The arrays of a graph in compressed sparse row form, as stored in a binary graph file.
+  */
+
+  public static class Data {
+    private final boolean directed; // indicates whether the graph is directed or undirected.
+    private final boolean weighted; // indicates whether the arcs carry weights.
+    private final int[] offsets; // row i spans targets[offsets[i]] .. targets[offsets[i + 1] - 1]
+    private final int[] targets; // target vertex id of each arc
+    private final int[] weights; // weight of each arc, all 0 when the graph is unweighted
+
+    Data(boolean directed, boolean weighted, int[] offsets, int[] targets, int[] weights){
+      this.directed = directed;
+      this.weighted = weighted;
+      this.offsets = offsets;
+      this.targets = targets;
+      this.weights = weights;
+    }
+
+    /**
+      Returns whether the graph is directed.
+    */
+
+    public boolean isDirected(){
+      return directed;
+    }
+
+    /**
+      Returns whether the arcs carry weights.
+    */
+
+    public boolean isWeighted(){
+      return weighted;
+    }
+
+    /**
+      Returns the number of vertices.
+    */
+
+    public int getVertexCount(){
+      return offsets.length - 1;
+    }
+
+    /**
+      Returns the row offsets, with one more entry than the number of vertices.
+    */
+
+    public int[] getOffsets(){
+      return offsets;
+    }
+
+    /**
+      Returns the target vertex id of each arc.
+    */
+
+    public int[] getTargets(){
+      return targets;
+    }
+
+    /**
+      Returns the weight of each arc.
+    */
+
+    public int[] getWeights(){
+      return weights;
+    }
+  }
+
+  /**
+    Writes a graph in compressed sparse row form to a binary file.
+
+    Desc: This method writes a 16 bytes header (the "GRPH" magic, the format version, the flags, two reserved bytes, the vertex count and the arc count) followed by the arrays, all little-endian.
+    Without compression, the file holds the `offsets`, `targets` and (only if `weighted`) `weights` arrays as plain int arrays, so they can be read back with bulk copies.
+    With compression, each row is written as its varint degree followed by its arcs sorted by target, each one as the varint gap to the previous target and, if `weighted`, its zigzag varint weight.
+    Compression usually shrinks dense rows of small weights to 2 bytes per arc instead of 8, at the cost of decoding on load.
+    If an error occurs during the file writing process, an error message is printed.
+
+    @param path The path of the file to write.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the arcs carry weights.
+    @param offsets The row offsets, with one more entry than the number of vertices.
+    @param targets The target vertex id of each arc.
+    @param weights The weight of each arc.
+    @param compressed Specifies whether the rows are varint-delta encoded.
+  */
+
+  public static void write(String path, boolean directed, boolean weighted, int[] offsets, int[] targets, int[] weights, boolean compressed){
+    int n = offsets.length - 1, m = offsets[n];
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      int flags = (directed ? DIRECTED : 0) | (weighted ? WEIGHTED : 0) | (compressed ? COMPRESSED : 0);
+      buffer.putInt(MAGIC).put(VERSION).put((byte) flags).putShort((short) 0).putInt(n).putInt(m);
+
+      if(!compressed){
+        putInts(channel, buffer, offsets, 0, n + 1);
+        putInts(channel, buffer, targets, 0, m);
+        if(weighted) putInts(channel, buffer, weights, 0, m);
+      } else {
+        long[] row = new long[0];
+        for(int v = 0; v < n; v++){
+          int degree = offsets[v + 1] - offsets[v];
+          if(row.length < degree) row = new long[Math.max(degree, row.length * 2)];
+          for(int a = 0; a < degree; a++)
+            row[a] = ((long) targets[offsets[v] + a] << 32) | (weights[offsets[v] + a] & 0xffffffffL);
+          Arrays.sort(row, 0, degree);
+
+          ensure(channel, buffer, 5);
+          putVarint(buffer, degree);
+          int previous = 0;
+          for(int a = 0; a < degree; a++){
+            int target = (int) (row[a] >>> 32), weight = (int) row[a];
+            ensure(channel, buffer, 10);
+            putVarint(buffer, target - previous);
+            if(weighted) putVarint(buffer, (weight << 1) ^ (weight >> 31));
+            previous = target;
+          }
+        }
+      }
+      flush(channel, buffer);
+    } catch (IOException e) {
+      System.out.println("An error occurred while writing the file: " + e.getMessage());
+    }
+  }
+
+  /**
+    Reads a graph in compressed sparse row form from a binary file written by `write`.
+
+    Desc: This method memory-maps the file and checks its header.
+    Uncompressed arrays are copied in bulk from little-endian int views of the mapping, so loading is a sequential copy rather than a parse.
+    Compressed rows are decoded varint by varint and their offsets rebuilt from the degrees.
+    The counts of the header are checked against the size of the file before anything is allocated, and the offsets (from 0 to the arc count, never decreasing),
+    the targets (vertex ids) and the number of decoded arcs are checked against the header, so a damaged file is rejected instead of producing a wrong graph.
+    If the file cannot be read, an error message is printed and an empty graph is returned.
+
+    @param path The path of the file to read.
+    @return The arrays of the graph.
+    @throws IllegalArgumentException If the file is not a binary graph file of a supported version, or is truncated or corrupted.
+  */
+
+  public static Data read(String path){
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      if(channel.size() > Integer.MAX_VALUE) throw new IllegalArgumentException("The file is too large to be mapped at once: " + path);
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+      if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) throw new IllegalArgumentException("Not a binary graph file: " + path);
+      byte version = buffer.get();
+      if(version != VERSION) throw new IllegalArgumentException("Unsupported binary graph file version: " + version);
+      int flags = buffer.get();
+      buffer.getShort();
+      int n = buffer.getInt(), m = buffer.getInt();
+      boolean directed = (flags & DIRECTED) != 0, weighted = (flags & WEIGHTED) != 0;
+      boolean compressed = (flags & COMPRESSED) != 0;
+      if(n < 0 || m < 0 || n == Integer.MAX_VALUE) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+      // a compressed row takes at least one byte and each of its arcs one more, so counts above the size of the file are corrupted
+      long minimum = compressed ? (long) n + m : 4L * ((long) n + 1 + m + (weighted ? m : 0));
+      if(buffer.remaining() < minimum) throw new IllegalArgumentException("Truncated binary graph file: " + path);
+      int[] offsets = new int[n + 1], targets = new int[m], weights = new int[m];
+
+      if(!compressed){
+        getInts(buffer, offsets);
+        getInts(buffer, targets);
+        if(weighted) getInts(buffer, weights);
+        if(offsets[0] != 0 || offsets[n] != m) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+        for(int v = 0; v < n; v++)
+          if(offsets[v] > offsets[v + 1]) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+        for(int target : targets)
+          if(target < 0 || target >= n) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+      } else {
+        int a = 0;
+        for(int v = 0; v < n; v++){
+          int degree = getVarint(buffer), previous = 0;
+          if(degree < 0 || degree > m - a) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+          for(int i = 0; i < degree; i++, a++){
+            int gap = getVarint(buffer);
+            if(gap < 0 || gap >= n - previous) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+            previous += gap;
+            targets[a] = previous;
+            if(weighted){
+              int zigzag = getVarint(buffer);
+              weights[a] = (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+          }
+          offsets[v + 1] = a;
+        }
+        if(a != m) throw new IllegalArgumentException("Corrupted binary graph file: " + path);
+      }
+      return new Data(directed, weighted, offsets, targets, weights);
+    } catch (IOException e) {
+      System.out.printf("An error occurred trying to read %s.\n", path);
+      e.printStackTrace();
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated binary graph file: " + path);
+    }
+    return new Data(false, false, new int[1], new int[0], new int[0]);
+  }
+
+  /**
+    Writes `count` ints of `values` through the buffer, flushing it to the channel whenever it is full.
+  */
+
+  private static void putInts(FileChannel channel, ByteBuffer buffer, int[] values, int from, int count) throws IOException {
+    int i = from, end = from + count;
+    while(i < end){
+      ensure(channel, buffer, 4);
+      int chunk = Math.min(end - i, buffer.remaining() / 4);
+      buffer.asIntBuffer().put(values, i, chunk);
+      buffer.position(buffer.position() + chunk * 4);
+      i += chunk;
+    }
+  }
+
+  /**
+    Copies the next `values.length` ints of the buffer into `values` in bulk.
+  */
+
+  private static void getInts(ByteBuffer buffer, int[] values){
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + values.length * 4);
+  }
+
+  /**
+    Flushes the buffer to the channel if it has less than `bytes` bytes left.
+  */
+
+  private static void ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+    if(buffer.remaining() < bytes) flush(channel, buffer);
+  }
+
+  /**
+    Writes the content of the buffer to the channel and clears it.
+  */
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while(buffer.hasRemaining()) channel.write(buffer);
+    buffer.clear();
+  }
+
+  /**
+    Writes an unsigned LEB128 varint, 7 bits per byte with the high bit set on every byte but the last.
+  */
+
+  private static void putVarint(ByteBuffer buffer, int value){
+    while((value & ~0x7f) != 0){
+      buffer.put((byte) ((value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  /**
+    Reads an unsigned LEB128 varint written by `putVarint`.
+
+    @throws IllegalArgumentException if the varint is longer than the 5 bytes of an int.
+  */
+
+  private static int getVarint(ByteBuffer buffer){
+    int value = 0, shift = 0;
+    byte b;
+    do {
+      if(shift > 28) throw new IllegalArgumentException("Corrupted binary graph file: varint longer than 5 bytes");
+      b = buffer.get();
+      value |= (b & 0x7f) << shift;
+      shift += 7;
+    } while(b < 0);
+    return value;
+  }
+}
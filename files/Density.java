@@ -0,0 +1,92 @@
+package files;
+
+public abstract class Density {
+  /**
+    Returns the probability that the element of row `i` and column `j` of an `n` x `n` adjacency matrix holds an edge.
+
+    @param i The row of the element.
+    @param j The column of the element, different from `i`.
+    @param n The size of the matrix.
+    @return The probability of an edge, between 0 and 1.
+  */
+
+  abstract double probability(int i, int j, int n);
+
+  /**
+    Prepares the density for matrices of size `n`, called once before any `probability` call.
+
+    @param n The size of the matrix.
+  */
+
+  void prepare(int n){
+  }
+
+  /**
+    Returns the density of a complete graph, every element outside the diagonal holds an edge.
+
+    @return The complete density.
+  */
+
+  public static Density complete(){
+    return new Density() {
+      double probability(int i, int j, int n){
+        return 1;
+      }
+    };
+  }
+
+  /**
+    Returns the Erdos-Renyi density G(n, p), every element outside the diagonal independently holds an edge with probability `p`.
+
+    @param p The probability of each edge.
+    @return The Erdos-Renyi density.
+    @throws IllegalArgumentException if `p` is not between 0 and 1.
+  */
+
+  public static Density erdosRenyi(double p){
+    if(p < 0 || p > 1) throw new IllegalArgumentException("Invalid edge probability: " + p);
+    return new Density() {
+      double probability(int i, int j, int n){
+        return p;
+      }
+    };
+  }
+
+  /**
+    Returns a power-law density following the Chung-Lu model.
+
+    Desc: Vertex `i` gets the expected degree `w(i)` proportional to `(i + 1)^(-1 / (exponent - 1))`, scaled so that the average expected degree is `averageDegree`,
+    and the element (i, j) holds an edge with probability `min(1, w(i) * w(j) / sum(w))`.
+    The resulting degree distribution follows a power law of the given exponent, so a few low-numbered vertices are hubs while most vertices have few edges.
+
+    @param exponent The exponent of the degree distribution, greater than 2.
+    @param averageDegree The average expected degree of a vertex.
+    @return The power-law density.
+    @throws IllegalArgumentException if `exponent` is not greater than 2 or `averageDegree` is negative.
+  */
+
+  public static Density powerLaw(double exponent, double averageDegree){
+    if(exponent <= 2) throw new IllegalArgumentException("Invalid power-law exponent: " + exponent);
+    if(averageDegree < 0) throw new IllegalArgumentException("Invalid average degree: " + averageDegree);
+    return new Density() {
+      private double[] weights; // expected degree of each vertex
+      private double total; // sum of the expected degrees
+
+      void prepare(int n){
+        this.weights = new double[n];
+        double sum = 0;
+        for(int i = 0; i < n; i++){
+          this.weights[i] = Math.pow(i + 1, -1 / (exponent - 1));
+          sum += this.weights[i];
+        }
+        double scale = n == 0 ? 0 : averageDegree * n / sum;
+        for(int i = 0; i < n; i++) this.weights[i] *= scale;
+        this.total = averageDegree * n;
+      }
+
+      double probability(int i, int j, int n){
+        return this.total == 0 ? 0 : Math.min(1, this.weights[i] * this.weights[j] / this.total);
+      }
+    };
+  }
+}
@@ -0,0 +1,23 @@
+package files;
+
+public interface EdgeSink {
+  /**
+    Receives the number of vertices of the graph being read, before any edge.
+
+    @param vertices The number of vertices.
+  */
+
+  void begin(int vertices);
+
+  /**
+    Receives one edge of the graph being read.
+
+    Desc: For adjacency matrices this is called once per non-zero cell, in row-major order, with the row as `source` and the column as `target`.
+
+    @param source The index of the source vertex.
+    @param target The index of the target vertex.
+    @param weight The weight of the edge.
+  */
+
+  void edge(int source, int target, int weight);
+}
@@ -3,10 +3,18 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.io.BufferedReader;
@@ -17,6 +25,8 @@ public abstract class FileManipulation {
   private final static String ADJACENT_SET_NAME = "adjSet.txt"; // The name of the adjacent set file.
   private final static String ANSWER_NAME = "answer.txt"; // The name of the answer file
   private final static String FILES_DESTINATION = "files\\"; // The path of destination to save the files
+  private final static long MAPPING_WINDOW = 1L << 26; // The number of bytes mapped at once when reading a matrix file
+  private final static long BLOCK_BYTES = 1L << 22; // The maximum size of a block of rows rendered at once when generating a matrix file
 
   /**
     Converts a one-dimensional list into a two-dimensional array.
@@ -110,28 +120,150 @@ public abstract class FileManipulation {
   }
 
   /**
-    Creates a set of adjacent files based on the specified matrix degrees and element boundary.
+    Reads an adjacency matrix file into a flat `int` array, using memory-mapped I/O.
+
+    Desc: This method reads a file in the same format as `readFile` (the size `n` followed by the `n * n` elements) and returns the elements in row-major order,
+    so the element of row `i` and column `j` is at index `i * n + j`.
+    The elements are parsed straight from the mapped bytes into the array by `streamAdjacentMatrix`, with no `Scanner`, no boxing and no intermediate list or 2D array.
+    If the file cannot be read, an error message is printed and an empty array is returned.
+
+    @param path The path to the file.
+    @return The elements of the matrix in row-major order.
+    @throws IllegalArgumentException If the file contains an invalid value, the matrix has more than 2^31 - 1 elements, or the quantity of values read does not match the expected size.
+  */
+
+  public static int[] readMatrixMapped(String path){
+    int[][] matrix = new int[1][];
+    boolean read = streamAdjacentMatrix(path, new EdgeSink() {
+      private int n;
+
+      public void begin(int vertices){
+        if((long) vertices * vertices > Integer.MAX_VALUE) 
+          throw new IllegalArgumentException("The matrix is too large to fit in an array: " + vertices);
+        this.n = vertices;
+        matrix[0] = new int[vertices * vertices];
+      }
 
-    Desc: This method creates a set of adjacent files based on the specified `matricesDegrees` and `matriceElementBoundary` parameters. 
-    It generates random adjacent files by calling the `generateRandomAdjacentFile` method for each degree in the `matricesDegrees` array. 
-    Then, it retrieves the set of generated files using the `getAdjacentFilesSet` method. 
-    Finally, it iterates over the file set and creates random data for each file by calling the `createRandomData` method with the appropriate parameters.
+      public void edge(int source, int target, int weight){
+        matrix[0][source * this.n + target] = weight;
+      }
+    });
+    return read ? matrix[0] : new int[0];
+  }
+
+  /**
+    Streams the edges of an adjacency matrix file to a sink, using memory-mapped I/O.
 
-    Note: The implementation of the `generateRandomAdjacentFile`, `getAdjacentFilesSet`, and `createRandomData` methods is not provided in this code snippet, as they are external methods and their implementations are specific.
+    Desc: This method maps the file with `FileChannel.map` in windows of at most `MAPPING_WINDOW` bytes, so files larger than 2GB are supported, 
+    and parses the ASCII integers directly from the `MappedByteBuffer`, byte by byte. 
+    Like `Integer.valueOf`, an integer may start with a '+' or '-' sign, and a value outside the `int` range is rejected rather than wrapped.
+    The first integer is the size `n` of the matrix and is passed to `sink.begin`, then every non-zero element is passed to `sink.edge` with its row and column, in row-major order.
+    Nothing is materialised, so a graph builder can consume the edges while the file is read.
+    If the file cannot be read, an error message is printed and `false` is returned.
+
+    @param path The path to the file.
+    @param sink The sink receiving the size and the edges of the matrix.
+    @return true if the file was read, false if an I/O error occurred.
+    @throws IllegalArgumentException If the file contains an invalid value or the quantity of values read does not match the expected size.
+  */
+
+  public static boolean streamAdjacentMatrix(String path, EdgeSink sink){
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      long size = channel.size(), cells = -1, read = 0;
+      long value = 0; // the digits of the current number, never above 2^31 so that it cannot wrap
+      int n = 0, sign = 0; // sign of the current number: 0 before any sign, 1 after '+', -1 after '-'
+      boolean inNumber = false;
+
+      for(long position = 0; position <= size; position += MAPPING_WINDOW){
+        long length = Math.min(MAPPING_WINDOW, size - position);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        boolean last = position + length >= size;
+        for(int i = 0; i <= length; i++){
+          if(i == length && !last) break;
+          byte b = i < length ? buffer.get(i) : (byte) ' ';
+          if(b >= '0' && b <= '9'){
+            value = value * 10 + (b - '0');
+            if(value > (long) Integer.MAX_VALUE + 1)
+              throw new IllegalArgumentException("Invalid integer value: " + (sign < 0 ? "-" : "") + value + "...");
+            inNumber = true;
+          } else if((b == '-' || b == '+') && !inNumber && sign == 0){
+            sign = b == '-' ? -1 : 1;
+          } else if(b == ' ' || b == '\n' || b == '\r' || b == '\t'){
+            if(!inNumber){
+              if(sign != 0) throw new IllegalArgumentException("Invalid integer value: " + (sign < 0 ? "-" : "+"));
+              continue;
+            }
+            long signed = sign < 0 ? -value : value;
+            if(signed > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid integer value: " + signed);
+            int element = (int) signed;
+            if(cells < 0){
+              if(element < 0) throw new IllegalArgumentException("Invalid matrix size: " + element);
+              n = element;
+              cells = (long) n * n;
+              sink.begin(n);
+            } else {
+              if(read >= cells) throw new IllegalArgumentException("The quantity of values expected does not match the file.");
+              if(element != 0) sink.edge((int) (read / n), (int) (read % n), element);
+              read++;
+            }
+            value = 0;
+            sign = 0;
+            inNumber = false;
+          } else throw new IllegalArgumentException("Invalid integer value: " + (char) b);
+        }
+        if(last) break;
+      }
+
+      if(cells < 0 || read != cells)
+        throw new IllegalArgumentException("The quantity of values expected does not match the file.");
+      return true;
+    } catch (IOException e) {
+      System.out.printf("An error occurred trying to read %s.\n", path);
+      e.printStackTrace();
+    }
+    return false;
+  }
+
+  /**
+    Creates a set of adjacent files based on the specified matrix degrees and element boundary.
+
+    Desc: This method creates a set of complete adjacent files based on the specified `matricesDegrees` and `matriceElementBoundary` parameters. 
+    It calls `createAdjacentFilesSet` with a complete density and a random seed.
 
     @param matricesDegrees An array containing the degrees of the matrices.
     @param matriceElementBoundary The boundary value for the elements of the matrices.
   */
 
   public static void createAdjacentFilesSet(int[] matricesDegrees, int matriceElementBoundary){
+    createAdjacentFilesSet(matricesDegrees, matriceElementBoundary, Density.complete(), new SplittableRandom().nextLong());
+  }
+
+  /**
+    Creates a set of adjacent files based on the specified matrix degrees, element boundary and density.
+
+    Desc: This method creates a set of adjacent files based on the specified `matricesDegrees`, `matriceElementBoundary` and `density` parameters. 
+    It registers a file for each degree in the `matricesDegrees` array by calling the `generateRandomAdjacentFile` method. 
+    Then, it retrieves the set of registered files using the `getAdjacentFilesSet` method. 
+    Finally, it iterates over the file set and streams random data into each file by calling the `generateAdjacentMatrixFile` method, 
+    the `i`-th file being generated with the seed `seed + i`.
+
+    @param matricesDegrees An array containing the degrees of the matrices.
+    @param matriceElementBoundary The boundary value for the elements of the matrices.
+    @param density The probability model of the edges.
+    @param seed The seed of the random values.
+  */
+
+  public static void createAdjacentFilesSet(int[] matricesDegrees, int matriceElementBoundary, Density density, long seed){
     for(int degree : matricesDegrees)
       generateRandomAdjacentFile(degree);
 
     List<File> fileSet = getAdjacentFilesSet(FILES_DESTINATION + ADJACENT_SET_NAME);
     int i = 0;
     for(File file : fileSet)
-      if(i < matricesDegrees.length)
-        createRandomData(FILES_DESTINATION + file.toString(), matricesDegrees[i++], matriceElementBoundary);
+      if(i < matricesDegrees.length){
+        generateAdjacentMatrixFile(FILES_DESTINATION + file.toString(), matricesDegrees[i], matriceElementBoundary, density, seed + i);
+        i++;
+      }
   }
 
   /**
@@ -169,6 +301,20 @@ public abstract class FileManipulation {
     }
   }
 
+  /**
+    Opens the answer file for streaming Minimum Spanning Trees into it.
+
+    Desc: This method opens an `AnswerWriter` on `FILES_DESTINATION + ANSWER_NAME`, the file written by `saveAnswer`. 
+    Unlike `saveAnswer`, which needs the whole answer as one string, the writer appends each edge as it is produced.
+
+    @return The writer of the answer file, to be closed by the caller.
+    @throws java.io.UncheckedIOException if the file cannot be opened.
+  */
+
+  public static AnswerWriter openAnswer(){
+    return new AnswerWriter(FILES_DESTINATION + ANSWER_NAME, false);
+  }
+
   /**
     Generates a random adjacent file with the specified number of vertices.
 
@@ -190,56 +336,99 @@ public abstract class FileManipulation {
   }
 
   /**
-    Creates random data and writes it to the specified file.
-
-    Desc: This method creates random data for an adjacency matrix with the specified number of vertices and writes it to the specified file. 
-    It creates a `FileWriter` with the given file name and writes the number of vertices followed by a newline character, and then writes the generated adjacency matrix data. 
+    Generates a random adjacency matrix file, streaming it row by row.
+
+    Desc: This method writes the number of vertices followed by an `n` x `n` random adjacency matrix, in the format read by `readFile` and `streamAdjacentMatrix`. 
+    Each element outside the diagonal holds an edge with the probability given by `density`, and each edge gets a random weight between 1 and `boundary`. 
+    The diagonal elements are set to 0 to represent the absence of self-loops, as are the elements without an edge.
+    The matrix is never held in memory: rows are rendered as ASCII directly into reusable byte buffers, in blocks of `BLOCK_BYTES` at most, 
+    and written through a `FileChannel`. The blocks of a wave are rendered in parallel on the common fork-join pool, one buffer per block, and then written in order.
+    Each row draws its values from its own `SplittableRandom` derived from `seed`, so the same seed always produces the same file whatever the parallelism.
     If an error occurs during the file writing process, an error message is printed.
 
-    @param fileName The name of the file to write the data to.
+    @param path The path of the file to write.
     @param n The number of vertices for the adjacency matrix.
     @param boundary The boundary value for generating random weights in the adjacency matrix.
+    @param density The probability model of the edges.
+    @param seed The seed of the random values.
+    @throws IllegalArgumentException if `n` is negative, `boundary` is not positive, or a row does not fit in a buffer.
   */
 
-  private static void createRandomData(String fileName, int n, int boundary){
-    try (FileWriter writer = new FileWriter(fileName)) {
-      String matriceData = generateAdjacentMatrice(n, boundary);
-      writer.write(n+"\n"+matriceData);
+  public static void generateAdjacentMatrixFile(String path, int n, int boundary, Density density, long seed){
+    if(n < 0) throw new IllegalArgumentException("Invalid number of vertices: " + n);
+    if(boundary < 1) throw new IllegalArgumentException("Invalid weight boundary: " + boundary);
+    long rowBytes = (long) n * (Integer.toString(boundary).length() + 1) + 1;
+    if(rowBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("The rows are too large to be generated: " + n);
+    density.prepare(n);
+
+    int blockRows = (int) Math.max(1, Math.min(n, BLOCK_BYTES / rowBytes));
+    int slots = ForkJoinPool.getCommonPoolParallelism();
+    byte[][] buffers = new byte[slots][(int) Math.min(Integer.MAX_VALUE, blockRows * rowBytes)];
+    int[] lengths = new int[slots];
+
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      writeFully(channel, ByteBuffer.wrap((n + "\n").getBytes(StandardCharsets.US_ASCII)));
+      for(int wave = 0; wave < n; wave += slots * blockRows){
+        int first = wave;
+        IntStream.range(0, slots).parallel().forEach(slot -> {
+          int from = first + slot * blockRows, to = Math.min(n, from + blockRows);
+          lengths[slot] = from < to ? renderRows(buffers[slot], from, to, n, boundary, density, seed) : 0;
+        });
+        for(int slot = 0; slot < slots; slot++)
+          writeFully(channel, ByteBuffer.wrap(buffers[slot], 0, lengths[slot]));
+      }
     } catch (IOException e) {
-      System.out.println("An error QUEBROU AQ occurred while writing the file: " + e.getMessage());
+      System.out.println("An error occurred while writing the file: " + e.getMessage());
     }
   }
 
   /**
-    Generates a random adjacency matrix as a string.
-
-    Desc: This method generates a random adjacency matrix as a string. 
-    It takes the number of vertices (`n`) and the random boundary (`randomBoundary`) as parameters. 
-    It uses a `StringBuilder` to construct the output string. 
-    It iterates over the rows and columns of the matrix and generates random weights within the specified boundary. 
-    The diagonal elements are set to 0 to represent the absence of self-loops. 
-    The generated matrix is returned as a string.
+    Renders the rows `from` to `to - 1` of a random adjacency matrix into `buffer` as ASCII, each element followed by a space and each row by a newline.
 
-    @param n The number of vertices for the adjacency matrix.
-    @param randomBoundary The boundary value for generating random weights in the adjacency matrix.
-    @return The generated adjacency matrix as a string.
+    @return The number of bytes written into `buffer`.
   */
 
-  private static String generateAdjacentMatrice(int n, int randomBoundary){
-    String output = "";
-    Random random = new Random();
-
-    for (int i = 0; i < n; i++){
-      for (int j = 0; j < n; j++){
-        if(i == j)
-          output += "0 ";
-        else
-          output += (random.nextInt(randomBoundary)+1)+" ";
+  private static int renderRows(byte[] buffer, int from, int to, int n, int boundary, Density density, long seed){
+    int length = 0;
+    for(int i = from; i < to; i++){
+      SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (i + 1)));
+      for(int j = 0; j < n; j++){
+        int weight = 0;
+        if(i != j){
+          double p = density.probability(i, j, n);
+          if(p >= 1 || random.nextDouble() < p) weight = random.nextInt(boundary) + 1;
+        }
+        length = putDigits(buffer, length, weight);
+        buffer[length++] = ' ';
       }
-      output += "\n";
+      buffer[length++] = '\n';
     }
-        
-    return output;
+    return length;
+  }
+
+  /**
+    Writes the decimal digits of a non-negative int into `buffer` at `at`, without allocating a string.
+
+    @return The position following the last digit.
+  */
+
+  private static int putDigits(byte[] buffer, int at, int value){
+    int end = at;
+    for(int v = value; v >= 10; v /= 10) end++;
+    int next = end + 1;
+    do {
+      buffer[end--] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while(value > 0);
+    return next;
+  }
+
+  /**
+    Writes every remaining byte of `buffer` to the channel.
+  */
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while(buffer.hasRemaining()) channel.write(buffer);
   }
 
   /**
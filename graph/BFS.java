@@ -0,0 +1,279 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+public abstract class BFS {
+  private final static int ALPHA = 14; // Switch to bottom-up once the frontier's arcs exceed 1/ALPHA of the unexplored arcs
+  private final static int BETA = 24; // Switch back to top-down once the frontier holds less than 1/BETA of the vertices
+  private final static int CHUNK = 1 << 10; // Number of frontier vertices expanded by one top-down task
+
+  /**
+    The breadth-first search levels from one source vertex of a frozen graph.
+  */
+
+  public static class Levels {
+    private final int source; // id of the source vertex
+    private final int[] distances; // number of arcs from the source to each vertex, -1 when unreachable
+    private final int[] parents; // previous vertex on a shortest path to each vertex, -1 for the source and the unreachable vertices
+
+    Levels(int source, int[] distances, int[] parents){
+      this.source = source;
+      this.distances = distances;
+      this.parents = parents;
+    }
+
+    /**
+      Returns the id of the source vertex.
+    */
+
+    public int getSource(){
+      return source;
+    }
+
+    /**
+      Returns the number of arcs from the source to each vertex, indexed by vertex id, -1 when the vertex cannot be reached.
+    */
+
+    public int[] getDistances(){
+      return distances;
+    }
+
+    /**
+      Returns the previous vertex on a shortest path to each vertex, indexed by vertex id, -1 for the source and the unreachable vertices.
+    */
+
+    public int[] getParents(){
+      return parents;
+    }
+
+    /**
+      Returns whether a vertex can be reached from the source.
+
+      @param v The id of the vertex.
+      @return true if a path leads from the source to the vertex, false otherwise.
+    */
+
+    public boolean reaches(int v){
+      return this.distances[v] >= 0;
+    }
+  }
+
+  /**
+    Runs a breadth-first search from a source vertex of a graph on the common fork-join pool.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and delegates to `search(CSRGraph, int, ForkJoinPool)`.
+    The ids of the returned levels are the ids of the frozen graph, map them back with `CSRGraph.dataOf`.
+
+    @param graph The graph to search.
+    @param source The data value of the source vertex.
+    @return The levels of the search.
+    @throws NoSuchElementException if the source vertex is not found.
+  */
+
+  public static <T> Levels search(Graph<T> graph, T source){
+    CSRGraph<T> frozen = graph.freeze();
+    return search(frozen, frozen.idOf(source), ForkJoinPool.commonPool());
+  }
+
+  /**
+    Runs a breadth-first search from a source vertex of a frozen graph with the given parallelism.
+
+    Desc: This method runs the levels on a dedicated `ForkJoinPool` of `parallelism` workers, which is shut down before returning.
+
+    @param graph The frozen graph to search.
+    @param source The id of the source vertex.
+    @param parallelism The number of worker threads.
+    @return The levels of the search.
+    @throws IllegalArgumentException if `parallelism` is not positive.
+  */
+
+  public static <T> Levels search(CSRGraph<T> graph, int source, int parallelism){
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return search(graph, source, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+    Runs a direction-optimizing breadth-first search from a source vertex of a frozen graph on the given pool.
+
+    Desc: The search is level-synchronous: each level turns the current frontier into the next one with one parallel step on the `pool`, in one of two directions.
+      - Top-down: every frontier vertex scans its outgoing arcs and claims the unvisited targets, with a compare-and-set on a visited bitset (`AtomicLongArray`),
+        so each vertex gets exactly one parent. The frontier is a list of vertex ids, split into chunks of `CHUNK` vertices.
+      - Bottom-up: every unvisited vertex scans its incoming arcs (the rows of `graph.transpose()`) and stops at the first one coming from the frontier.
+        The transpose is only built by the first bottom-up level, so a search that stays top-down never pays for it, and an undirected graph is its own transpose.
+        The frontier is a bitset, and each task owns 64 vertices per bitset word, so no compare-and-set is needed.
+    Top-down pays for every arc of the frontier, bottom-up for the arcs of the unvisited vertices up to their first parent, which is much less once the frontier covers a large part of the graph.
+    Following Beamer et al., the search switches to bottom-up when the frontier's arcs exceed 1/`ALPHA` of the arcs of the unvisited vertices,
+    and back to top-down when the frontier holds less than 1/`BETA` of the vertices.
+    Every vertex gets the level at which it is first reached, so the distances do not depend on the directions taken nor on the parallelism, while the parents may.
+
+    The time complexity of this method is O(|V| + |E|) work, spread over the workers of the pool.
+
+    @param graph The frozen graph to search.
+    @param source The id of the source vertex.
+    @param pool The pool that runs the levels.
+    @return The levels of the search.
+  */
+
+  public static <T> Levels search(CSRGraph<T> graph, int source, ForkJoinPool pool){
+    int n = graph.vertexCount(), words = (n + 63) >>> 6;
+    CSRGraph<T> reverse = null; // the transpose, built by the first bottom-up level
+    int[] distances = new int[n], parents = new int[n];
+    Arrays.fill(distances, -1);
+    Arrays.fill(parents, -1);
+    AtomicLongArray visited = new AtomicLongArray(words);
+
+    distances[source] = 0;
+    visited.set(source >>> 6, 1L << source);
+    int[] frontier = {source};
+    long[] frontierBits = null; // the frontier as a bitset while searching bottom-up, null while searching top-down
+    int frontierSize = 1;
+    long frontierArcs = graph.degree(source), unexploredArcs = graph.arcCount() - frontierArcs;
+
+    for(int level = 1; frontierSize > 0; level++){
+      if(frontierBits == null && frontierArcs > unexploredArcs / ALPHA){
+        frontierBits = new long[words];
+        for(int i = 0; i < frontierSize; i++) frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+      } else if(frontierBits != null && frontierSize < n / BETA){
+        frontier = new int[frontierSize];
+        for(int w = 0, i = 0; w < words; w++)
+          for(long bits = frontierBits[w]; bits != 0; bits &= bits - 1) frontier[i++] = (w << 6) | Long.numberOfTrailingZeros(bits);
+        frontierBits = null;
+      }
+
+      if(frontierBits == null){
+        frontier = topDown(graph, pool, frontier, frontierSize, level, visited, distances, parents);
+        frontierSize = frontier.length;
+        int[] next = frontier;
+        frontierArcs = pool.submit(() -> Arrays.stream(next).parallel().mapToLong(graph::degree).sum()).join();
+      } else {
+        if(reverse == null) reverse = graph.transpose();
+        long[] next = new long[words];
+        frontierArcs = bottomUp(graph, reverse, pool, frontierBits, next, level, visited, distances, parents);
+        frontierBits = next;
+        frontierSize = Arrays.stream(next).mapToInt(Long::bitCount).sum();
+      }
+      unexploredArcs -= frontierArcs;
+    }
+    return new Levels(source, distances, parents);
+  }
+
+  /**
+    Runs a breadth-first search from a source vertex of an off-heap adjacency.
+
+    Desc: The search walks the rows of `graph` level by level with a queue of vertex ids, reading every arc from off-heap memory, so only the distances, parents and queue (|V| ints each) are on the heap.
+    It is sequential, since a graph too large for the heap is usually bound by the memory bandwidth or the page cache rather than by the processors.
+
+    The time complexity of this method is O(|V| + |E|).
+
+    @param graph The adjacency to search, see `OffHeapEdgeStore.adjacency`.
+    @param source The id of the source vertex.
+    @return The levels of the search.
+  */
+
+  public static Levels search(OffHeapEdgeStore.Adjacency graph, int source){
+    int n = graph.vertexCount();
+    int[] distances = new int[n], parents = new int[n], queue = new int[n];
+    Arrays.fill(distances, -1);
+    Arrays.fill(parents, -1);
+
+    distances[source] = 0;
+    queue[0] = source;
+    for(int head = 0, tail = 1; head < tail; head++){
+      int v = queue[head];
+      for(long a = graph.offset(v), end = graph.offset(v + 1); a < end; a++){
+        int u = graph.target(a);
+        if(distances[u] >= 0) continue;
+        distances[u] = distances[v] + 1;
+        parents[u] = v;
+        queue[tail++] = u;
+      }
+    }
+    return new Levels(source, distances, parents);
+  }
+
+  /**
+    Expands the frontier along the outgoing arcs of its vertices.
+
+    @return The vertices reached for the first time, which form the next frontier.
+  */
+
+  private static <T> int[] topDown(CSRGraph<T> graph, ForkJoinPool pool, int[] frontier, int size, int level, AtomicLongArray visited, int[] distances, int[] parents){
+    int chunks = (size + CHUNK - 1) / CHUNK;
+    int[][] found = pool.submit(() -> IntStream.range(0, chunks).parallel().mapToObj(c -> {
+      int[] reached = new int[16];
+      int count = 0;
+      for(int i = c * CHUNK, end = Math.min(size, i + CHUNK); i < end; i++){
+        int v = frontier[i];
+        for(int a = graph.offset(v); a < graph.offset(v + 1); a++){
+          int u = graph.target(a);
+          if(!claim(visited, u)) continue;
+          distances[u] = level;
+          parents[u] = v;
+          if(count == reached.length) reached = Arrays.copyOf(reached, count * 2);
+          reached[count++] = u;
+        }
+      }
+      return Arrays.copyOf(reached, count);
+    }).toArray(int[][]::new)).join();
+
+    int total = 0;
+    for(int[] f : found) total += f.length;
+    int[] next = new int[total];
+    for(int[] f : found){
+      System.arraycopy(f, 0, next, next.length - total, f.length);
+      total -= f.length;
+    }
+    return next;
+  }
+
+  /**
+    Lets every unvisited vertex look for a parent in the frontier along its incoming arcs.
+
+    @return The number of arcs leaving the vertices reached for the first time (their out-degree in `graph`), which form the next frontier (set in `next`).
+  */
+
+  private static <T> long bottomUp(CSRGraph<T> graph, CSRGraph<T> reverse, ForkJoinPool pool, long[] frontier, long[] next, int level, AtomicLongArray visited, int[] distances, int[] parents){
+    int n = reverse.vertexCount();
+    return pool.submit(() -> IntStream.range(0, next.length).parallel().mapToLong(w -> {
+      long seen = visited.get(w), reached = 0, arcs = 0;
+      for(int v = w << 6, end = Math.min(n, v + 64); v < end; v++){
+        if((seen & (1L << v)) != 0) continue;
+        for(int a = reverse.offset(v); a < reverse.offset(v + 1); a++){
+          int p = reverse.target(a);
+          if((frontier[p >>> 6] & (1L << p)) == 0) continue;
+          distances[v] = level;
+          parents[v] = p;
+          reached |= 1L << v;
+          arcs += graph.degree(v);
+          break;
+        }
+      }
+      next[w] = reached;
+      visited.set(w, seen | reached);
+      return arcs;
+    }).sum()).join();
+  }
+
+  /**
+    Marks a vertex as visited, retrying while other threads race on the same bitset word.
+
+    @return true if this call marked the vertex, false if it was already visited.
+  */
+
+  private static boolean claim(AtomicLongArray visited, int v){
+    int w = v >>> 6;
+    long bit = 1L << v, current = visited.get(w);
+    while((current & bit) == 0){
+      if(visited.compareAndSet(w, current, current | bit)) return true;
+      current = visited.get(w);
+    }
+    return false;
+  }
+}
@@ -0,0 +1,137 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+public abstract class Boruvka {
+  private final static long NONE = Long.MAX_VALUE; // Marks a component without an outgoing edge in the current round.
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using Boruvka's algorithm on the common fork-join pool.
+
+    @param graph The graph for which to compute the MST.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+  */
+
+  public static <T> Set<Edge<T>> MST(Graph<T> graph){
+    return MST(graph.freeze(), ForkJoinPool.commonPool());
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using Boruvka's algorithm with the given parallelism.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and runs the rounds on a dedicated `ForkJoinPool` of `parallelism` workers,
+    which is shut down before returning.
+
+    @param graph The graph for which to compute the MST.
+    @param parallelism The number of worker threads.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+    @throws IllegalArgumentException if `parallelism` is not positive.
+  */
+
+  public static <T> Set<Edge<T>> MST(Graph<T> graph, int parallelism){
+    return MST(graph.freeze(), parallelism);
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a frozen graph using Boruvka's algorithm with the given parallelism.
+
+    @param graph The frozen graph for which to compute the MST.
+    @param parallelism The number of worker threads.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+    @throws IllegalArgumentException if `parallelism` is not positive.
+  */
+
+  public static <T> Set<Edge<T>> MST(CSRGraph<T> graph, int parallelism){
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return MST(graph, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a frozen graph using Boruvka's algorithm on the given pool.
+
+    Desc: Boruvka's algorithm grows every component at once. Each edge is packed into a `long` key holding its weight in the high half and its index in the low half,
+    so keys are unique and every component has exactly one cheapest outgoing edge, which keeps the chosen edges free of cycles.
+    Each round runs three parallel steps on the `pool`:
+      - Every edge between two different components offers its key to both components, the minimum is kept with a compare-and-set on an `AtomicLongArray`.
+      - Every component joins the endpoints of its cheapest edge in a `ConcurrentDisjointSet`. The thread whose union succeeds accepts the edge,
+        so an edge chosen by both of its components is accepted once.
+      - The edges whose endpoints are now in the same component are discarded.
+    The number of components at least halves every round, so there are at most log |V| rounds.
+    The accepted edges are reported in ascending key order, i.e. in the order a sequential Kruskal sweep would accept them.
+    Self-loops are ignored. For undirected graphs each edge is reported once, oriented from the row in which it is stored in the `CSRGraph`.
+
+    The time complexity of this method is O(|E| log |V|) work, spread over the workers of the pool.
+
+    @param graph The frozen graph for which to compute the MST.
+    @param pool The pool that runs the rounds.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+  */
+
+  public static <T> Set<Edge<T>> MST(CSRGraph<T> graph, ForkJoinPool pool){
+    int n = graph.vertexCount();
+    int[] sources = new int[graph.arcCount()];
+    int[] arcs = new int[graph.arcCount()];
+    int m = graph.edgeArcs(sources, arcs);
+
+    long[] keys = new long[m];
+    for(int e = 0; e < m; e++)
+      keys[e] = ((long) graph.weight(arcs[e]) << 32) | e;
+
+    ConcurrentDisjointSet components = new ConcurrentDisjointSet(n);
+    AtomicLongArray cheapest = new AtomicLongArray(n);
+    for(int v = 0; v < n; v++) cheapest.set(v, NONE);
+    boolean[] accepted = new boolean[m];
+    long[] alive = keys;
+    int count = m;
+
+    while(count > 0){
+      long[] edges = alive;
+      pool.submit(() -> IntStream.range(0, edges.length).parallel().forEach(i -> {
+        int e = (int) edges[i];
+        int u = components.find(sources[e]), v = components.find(graph.target(arcs[e]));
+        if(u == v) return;
+        offer(cheapest, u, edges[i]);
+        offer(cheapest, v, edges[i]);
+      })).join();
+
+      pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> {
+        long key = cheapest.get(v);
+        if(key == NONE) return;
+        cheapest.set(v, NONE);
+        int e = (int) key;
+        if(components.union(sources[e], graph.target(arcs[e]))) accepted[e] = true;
+      })).join();
+
+      alive = pool.submit(() -> Arrays.stream(edges).parallel()
+        .filter(key -> !components.connected(sources[(int) key], graph.target(arcs[(int) key])))
+        .toArray()).join();
+      if(alive.length == count) break;
+      count = alive.length;
+    }
+
+    long[] chosen = Arrays.stream(keys).filter(key -> accepted[(int) key]).sorted().toArray();
+    Set<Edge<T>> tree = new LinkedHashSet<>();
+    for(long key : chosen)
+      tree.add(graph.toEdge(sources[(int) key], arcs[(int) key]));
+    return tree;
+  }
+
+  /**
+    Lowers the cheapest key recorded for a component to `key` if it is smaller, retrying while other threads race on the same component.
+  */
+
+  private static void offer(AtomicLongArray cheapest, int component, long key){
+    long current = cheapest.get(component);
+    while(key < current && !cheapest.compareAndSet(component, current, key))
+      current = cheapest.get(component);
+  }
+}
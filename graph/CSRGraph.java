@@ -0,0 +1,454 @@
+package graph;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import files.BinaryGraphFile;
+import files.EdgeSink;
+import files.FileManipulation;
+
+public class CSRGraph<T> {
+  private final boolean directed; // indicates whether the graph is directed or undirected.
+  private final boolean weighted; // indicates whether the graph is weighted or unweighted.
+  private final Object[] data; // maps each dense vertex id to its data payload
+  private final VertexIndex index; // maps each vertex data payload to its dense id, built on the first lookup
+  private final int[] offsets; // row i spans targets[offsets[i]] .. targets[offsets[i + 1] - 1]
+  private final int[] targets; // target vertex id of each arc
+  private final int[] weights; // weight of each arc (0 when the graph is unweighted)
+
+  /**
+    Constructs a compressed sparse row graph from already built arrays.
+
+    Desc: This constructor is used by the freezing and loading routines, it does not copy nor validate the arrays.
+    The `offsets` array must have `data.length + 1` entries, and the `targets` and `weights` arrays must have `offsets[data.length]` entries.
+    For undirected graphs every edge is expected to appear in the rows of both of its endpoints.
+    The lookup from data to id is not built here but by the first `idOf`.
+
+    @param data The data payload of each vertex, indexed by dense id.
+    @param offsets The row offsets.
+    @param targets The target vertex id of each arc.
+    @param weights The weight of each arc.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges in the graph are weighted or not.
+  */
+
+  CSRGraph(Object[] data, int[] offsets, int[] targets, int[] weights, boolean directed, boolean weighted){
+    this(data, offsets, targets, weights, directed, weighted, new VertexIndex(data));
+  }
+
+  private CSRGraph(Object[] data, int[] offsets, int[] targets, int[] weights, boolean directed, boolean weighted, VertexIndex index){
+    this.data = data;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.directed = directed;
+    this.weighted = weighted;
+    this.index = index;
+  }
+
+  /**
+    Freezes the given graph into a compressed sparse row representation.
+
+    Desc: This method maps every vertex of the `graph` to a dense int id in the range [0, |V|) and stores its edges as three primitive arrays.
+    It first counts the arcs leaving each vertex, turns the counts into row offsets with a prefix sum, and finally scatters each edge into its row (counting sort).
+    If the graph is undirected, each edge is stored in the rows of both of its endpoints so that its rows can be walked in both directions.
+    Unweighted edges (`null` weight) are stored with weight 0.
+    The vertices of a `Graph` are interned with dense ids by its `VertexDictionary`, so they are compacted through an int array indexed by those ids, in id order, instead of being hashed again.
+    The returned graph is immutable, later changes to `graph` are not reflected on it.
+
+    The time complexity of this method is O(|V| + |E|).
+
+    @param graph The graph to freeze.
+    @return The compressed sparse row representation of the graph.
+  */
+
+  static <T> CSRGraph<T> freeze(Graph<T> graph){
+    Set<Vertex<T>> vertices = graph.getVertices();
+    Set<Edge<T>> edges = graph.getEdges();
+    int n = vertices.size(), bound = 0;
+    boolean interned = true;
+    for(Vertex<T> v : vertices){
+      interned &= v.id >= 0;
+      bound = Math.max(bound, v.id + 1);
+    }
+    Object[] data = new Object[n];
+    int[] compact = interned ? new int[bound] : null;
+    Map<Vertex<T>, Integer> index = interned ? null : new HashMap<>(n * 2);
+    int id = 0;
+    for(Vertex<T> v : vertices){
+      data[id] = v.getData();
+      if(interned) compact[v.id] = id++;
+      else index.put(v, id++);
+    }
+
+    int m = edges.size();
+    int[] sources = new int[m], ends = new int[m], values = new int[m];
+    int k = 0;
+    for(Edge<T> e : edges){
+      sources[k] = interned ? compact[e.getSource().id] : index.get(e.getSource());
+      ends[k] = interned ? compact[e.getTarget().id] : index.get(e.getTarget());
+      values[k++] = e.getWeight() == null ? 0 : e.getWeight();
+    }
+    return fromEdges(data, sources, ends, values, graph.isDirected(), graph.isWeighted());
+  }
+
+  /**
+    Reads an adjacency matrix file straight into a compressed sparse row graph.
+
+    Desc: This method streams the non-zero elements of the matrix from `FileManipulation.streamAdjacentMatrix` into growing edge arrays and builds the rows with `fromEdges`,
+    so neither a `Graph` nor the matrix itself is ever materialised. Vertex `i` holds the `Integer` data `i`, as in `Graph.readAdjacentMatrix`.
+    If the file cannot be read, an empty graph is returned.
+
+    @param path The path to the file containing the adjacency matrix.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @return The compressed sparse row graph.
+    @throws IllegalArgumentException If the file contains an invalid value or the quantity of values read does not match the expected size.
+  */
+
+  public static CSRGraph<Integer> readAdjacentMatrix(String path, boolean directed){
+    EdgeArrays edges = new EdgeArrays();
+    FileManipulation.streamAdjacentMatrix(path, edges);
+    Object[] data = new Object[edges.vertices];
+    for(int i = 0; i < data.length; i++) data[i] = Integer.valueOf(i);
+    return fromEdges(data, Arrays.copyOf(edges.sources, edges.size), Arrays.copyOf(edges.targets, edges.size),
+      Arrays.copyOf(edges.weights, edges.size), directed, true);
+  }
+
+  /**
+    Loads a compressed sparse row graph from a binary graph file.
+
+    Desc: This method reads the arrays with `BinaryGraphFile.read`, which copies them in bulk from the mapped file, and wraps them without any further pass over the arcs.
+    The file only stores vertex ids, so vertex `i` holds the `Integer` data `i`.
+
+    @param path The path to the binary graph file.
+    @return The compressed sparse row graph.
+    @throws IllegalArgumentException If the file is not a valid binary graph file.
+  */
+
+  public static CSRGraph<Integer> load(String path){
+    BinaryGraphFile.Data file = BinaryGraphFile.read(path);
+    Object[] data = new Object[file.getVertexCount()];
+    for(int i = 0; i < data.length; i++) data[i] = Integer.valueOf(i);
+    return new CSRGraph<>(data, file.getOffsets(), file.getTargets(), file.getWeights(), file.isDirected(), file.isWeighted());
+  }
+
+  /**
+    Saves the graph to a binary graph file.
+
+    Desc: This method writes the row offsets, targets and weights with `BinaryGraphFile.write`, either as plain little-endian int arrays or varint-delta compressed.
+    Only the dense vertex ids are stored, the data payload of the vertices is not, so a graph loaded back with `load` holds the ids as data.
+
+    @param path The path of the file to write.
+    @param compressed Specifies whether the rows are varint-delta encoded.
+  */
+
+  public void save(String path, boolean compressed){
+    BinaryGraphFile.write(path, this.directed, this.weighted, this.offsets, this.targets, this.weights, compressed);
+  }
+
+  /**
+    Builds a compressed sparse row graph from parallel edge arrays.
+
+    Desc: This method builds the row offsets by counting the arcs of each vertex and then scatters every edge into its row.
+    If the graph is undirected, each edge (u, v) also produces the arc (v, u), so undirected self-loops appear twice in their row.
+
+    @param data The data payload of each vertex, indexed by dense id.
+    @param sources The source vertex id of each edge.
+    @param ends The target vertex id of each edge.
+    @param values The weight of each edge.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges in the graph are weighted or not.
+    @return The compressed sparse row graph.
+  */
+
+  static <T> CSRGraph<T> fromEdges(Object[] data, int[] sources, int[] ends, int[] values, boolean directed, boolean weighted){
+    int n = data.length, m = sources.length;
+    int[] offsets = new int[n + 1];
+    for(int e = 0; e < m; e++){
+      offsets[sources[e] + 1]++;
+      if(!directed) offsets[ends[e] + 1]++;
+    }
+    for(int i = 0; i < n; i++)
+      offsets[i + 1] += offsets[i];
+
+    int arcs = offsets[n];
+    int[] targets = new int[arcs], weights = new int[arcs];
+    int[] cursor = new int[n];
+    System.arraycopy(offsets, 0, cursor, 0, n);
+    for(int e = 0; e < m; e++){
+      int slot = cursor[sources[e]]++;
+      targets[slot] = ends[e];
+      weights[slot] = values[e];
+      if(!directed){
+        slot = cursor[ends[e]]++;
+        targets[slot] = sources[e];
+        weights[slot] = values[e];
+      }
+    }
+    return new CSRGraph<>(data, offsets, targets, weights, directed, weighted);
+  }
+
+  /**
+    Returns the number of vertices in the graph.
+
+    @return The number of vertices.
+  */
+
+  public int vertexCount(){
+    return this.data.length;
+  }
+
+  /**
+    Returns the number of arcs stored in the graph.
+
+    Desc: For directed graphs this is the number of edges, for undirected graphs every edge is counted once per endpoint.
+
+    @return The number of arcs.
+  */
+
+  public int arcCount(){
+    return this.targets.length;
+  }
+
+  /**
+    Returns the dense id of the vertex holding the given data.
+
+    Desc: The lookup map is only built by the first call, and is shared with the transpose, since most algorithms work on dense ids and never look a vertex up by its data.
+    When vertex `i` holds the `Integer` data `i` (as in `load` and `readAdjacentMatrix`), no map is built at all and the data is its own id.
+
+    @param vertexData The data value of the vertex.
+    @return The dense id of the vertex.
+    @throws NoSuchElementException if the vertex is not found.
+  */
+
+  public int idOf(T vertexData){
+    int id = this.index.idOf(vertexData);
+    if(id < 0) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", vertexData));
+    return id;
+  }
+
+  /**
+    Returns the data held by the vertex with the given dense id.
+
+    @param id The dense id of the vertex.
+    @return The data value of the vertex.
+  */
+
+  @SuppressWarnings("unchecked")
+  public T dataOf(int id){
+    return (T) this.data[id];
+  }
+
+  /**
+    Returns the index of the first arc leaving the given vertex.
+
+    Desc: The arcs of vertex `v` are stored at indices `offset(v)` (inclusive) to `offset(v + 1)` (exclusive),
+    so a neighbor walk is a plain loop over `target(a)` and `weight(a)` without any allocation.
+
+    @param v The dense id of the vertex, `vertexCount()` is accepted and returns `arcCount()`.
+    @return The index of the first arc of the vertex.
+  */
+
+  public int offset(int v){
+    return this.offsets[v];
+  }
+
+  /**
+    Returns the number of arcs leaving the given vertex.
+
+    @param v The dense id of the vertex.
+    @return The out degree of the vertex.
+  */
+
+  public int degree(int v){
+    return this.offsets[v + 1] - this.offsets[v];
+  }
+
+  /**
+    Returns the target vertex id of the given arc.
+
+    @param arc The arc index.
+    @return The dense id of the arc target.
+  */
+
+  public int target(int arc){
+    return this.targets[arc];
+  }
+
+  /**
+    Returns the weight of the given arc.
+
+    @param arc The arc index.
+    @return The arc weight, 0 if the graph is unweighted.
+  */
+
+  public int weight(int arc){
+    return this.weights[arc];
+  }
+
+  /**
+    Returns whether the graph is directed.
+
+    @return true if the graph is directed, false otherwise.
+  */
+
+  public boolean isDirected(){
+    return this.directed;
+  }
+
+  /**
+    Returns whether the graph is weighted.
+
+    @return true if the graph is weighted, false otherwise.
+  */
+
+  public boolean isWeighted(){
+    return this.weighted;
+  }
+
+  /**
+    Returns the graph with every arc reversed.
+
+    Desc: In the transpose, the row of a vertex lists the arcs arriving at it in this graph, which is what backward searches (e.g. bidirectional Dijkstra, bottom-up BFS, strongly connected components) walk.
+    An undirected graph already stores every edge in both rows, so it is its own transpose.
+    The vertex ids and data of the transpose are the same as in this graph, and so is its data to id lookup.
+
+    @return The transpose of the graph.
+  */
+
+  public CSRGraph<T> transpose(){
+    if(!this.directed) return this;
+    int n = this.vertexCount(), m = this.arcCount();
+    int[] sources = new int[m];
+    for(int v = 0; v < n; v++)
+      for(int a = this.offsets[v]; a < this.offsets[v + 1]; a++) sources[a] = v;
+    CSRGraph<T> reverse = fromEdges(this.data, this.targets, sources, this.weights, true, this.weighted);
+    return new CSRGraph<>(this.data, reverse.offsets, reverse.targets, reverse.weights, true, this.weighted, this.index);
+  }
+
+  /**
+    Lists every edge of the graph once, as a (source, arc) pair, ignoring self-loops.
+
+    Desc: This method fills `sources` and `arcs` (both sized at least `arcCount()`) with the source vertex id and arc index of each edge.
+    In a directed graph every arc is an edge. In an undirected graph every edge is stored in both rows, so only the arcs going from a lower to a higher id are listed.
+    It is the common input of the edge based algorithms (e.g. the MST engines), which then read targets and weights through the arc index.
+
+    @param sources The array receiving the source vertex id of each edge.
+    @param arcs The array receiving the arc index of each edge.
+    @return The number of edges listed.
+  */
+
+  int edgeArcs(int[] sources, int[] arcs){
+    int m = 0, n = this.vertexCount();
+    for(int u = 0; u < n; u++)
+      for(int a = this.offsets[u]; a < this.offsets[u + 1]; a++){
+        int v = this.targets[a];
+        if(u == v || (!this.directed && v < u)) continue;
+        sources[m] = u;
+        arcs[m++] = a;
+      }
+    return m;
+  }
+
+  /**
+    Creates an `Edge` object for the given arc.
+
+    Desc: This method maps the arc back into the object layer, it is meant for reporting results (e.g. MST edges), not for hot loops.
+
+    @param source The dense id of the arc source.
+    @param arc The arc index.
+    @return The edge represented by the arc.
+  */
+
+  Edge<T> toEdge(int source, int arc){
+    Integer w = this.weighted ? Integer.valueOf(this.weights[arc]) : null;
+    return new Edge<T>(new Vertex<T>(dataOf(source)), new Vertex<T>(dataOf(this.targets[arc])), w, this.directed);
+  }
+
+  /**
+    Returns a string representation of the graph.
+
+    @return A string describing the size and settings of the graph.
+  */
+
+  @Override
+  public String toString(){
+    return String.format("CSRGraph %s and %s with |V| = %d and %d arcs",
+      this.directed ? "directed" : "undirected", this.weighted ? "weighted" : "unweighted", this.vertexCount(), this.arcCount());
+  }
+
+  /**
+    The lookup from vertex data to dense id, built on the first lookup and shared by the graphs holding the same vertices.
+  */
+
+  private static class VertexIndex {
+    private final static Map<Object, Integer> IDENTITY = new HashMap<>(0); // Marks an index whose vertex i holds the Integer i, so no map is needed
+
+    private final Object[] data; // the data payload of each vertex, indexed by dense id
+    private volatile Map<Object, Integer> ids; // maps each data payload to its dense id, null until the first lookup
+
+    VertexIndex(Object[] data){
+      this.data = data;
+    }
+
+    /**
+      Returns the dense id of the vertex holding the given data, -1 if there is none.
+    */
+
+    int idOf(Object vertexData){
+      Map<Object, Integer> ids = this.ids;
+      if(ids == null) ids = build();
+      if(ids == IDENTITY){
+        if(!(vertexData instanceof Integer)) return -1;
+        int id = (Integer) vertexData;
+        return id >= 0 && id < this.data.length ? id : -1;
+      }
+      Integer id = ids.get(vertexData);
+      return id == null ? -1 : id;
+    }
+
+    /**
+      Builds the lookup map, or marks the index as `IDENTITY` if vertex i holds the `Integer` i, once.
+    */
+
+    private synchronized Map<Object, Integer> build(){
+      if(this.ids != null) return this.ids;
+      boolean identity = true;
+      for(int i = 0; i < this.data.length && identity; i++)
+        identity = this.data[i] instanceof Integer && (Integer) this.data[i] == i;
+      Map<Object, Integer> ids = IDENTITY;
+      if(!identity){
+        ids = new HashMap<>(this.data.length * 2);
+        for(int i = 0; i < this.data.length; i++) ids.put(this.data[i], i);
+      }
+      return this.ids = ids;
+    }
+  }
+
+  /**
+    Edge sink accumulating the streamed edges into parallel arrays that double when full.
+  */
+
+  private static class EdgeArrays implements EdgeSink {
+    private int vertices; // number of vertices announced by the reader
+    private int size; // number of edges received
+    private int[] sources = new int[16], targets = new int[16], weights = new int[16];
+
+    public void begin(int vertices){
+      this.vertices = vertices;
+    }
+
+    public void edge(int source, int target, int weight){
+      if(this.size == this.sources.length){
+        int capacity = this.size * 2;
+        this.sources = Arrays.copyOf(this.sources, capacity);
+        this.targets = Arrays.copyOf(this.targets, capacity);
+        this.weights = Arrays.copyOf(this.weights, capacity);
+      }
+      this.sources[this.size] = source;
+      this.targets[this.size] = target;
+      this.weights[this.size++] = weight;
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+public abstract class Components {
+  private final static int NEIGHBOR_ROUNDS = 2; // Number of arcs per vertex linked before the largest component is sampled
+  private final static int SAMPLES = 1024; // Number of vertices sampled to guess the largest component
+
+  /**
+    The partition of the vertices of a frozen graph into components.
+  */
+
+  public static class Labels {
+    private final int[] components; // component of each vertex, from 0 to count - 1 in the order of their lowest vertex id
+    private final int count; // number of components
+
+    Labels(int[] components, int count){
+      this.components = components;
+      this.count = count;
+    }
+
+    /**
+      Returns the component of each vertex, indexed by vertex id.
+
+      Desc: Components are numbered from 0 to `getCount() - 1` in the order of their lowest vertex id, so the numbering does not depend on the parallelism.
+    */
+
+    public int[] getComponents(){
+      return components;
+    }
+
+    /**
+      Returns the number of components, 1 if the graph is connected (or strongly connected), 0 if it has no vertex.
+    */
+
+    public int getCount(){
+      return count;
+    }
+
+    /**
+      Returns the number of vertices of each component, indexed by component.
+    */
+
+    public int[] getSizes(){
+      int[] sizes = new int[this.count];
+      for(int c : this.components) sizes[c]++;
+      return sizes;
+    }
+
+    /**
+      Returns the vertices of each component.
+
+      Desc: The vertex ids of each component are listed in ascending order, so each component can be handed to its own task (e.g. to compute the tree of each component of a spanning forest in parallel).
+
+      @return The vertex ids of each component, indexed by component.
+    */
+
+    public int[][] members(){
+      int[] sizes = getSizes();
+      int[][] members = new int[this.count][];
+      for(int c = 0; c < this.count; c++) members[c] = new int[sizes[c]];
+      Arrays.fill(sizes, 0);
+      for(int v = 0; v < this.components.length; v++){
+        int c = this.components[v];
+        members[c][sizes[c]++] = v;
+      }
+      return members;
+    }
+  }
+
+  /**
+    Computes the connected components of a graph on the common fork-join pool.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and delegates to `connectedComponents(CSRGraph, ForkJoinPool)`.
+    The ids of the returned labels are the ids of the frozen graph, map them back with `CSRGraph.dataOf`.
+
+    @param graph The graph to partition.
+    @return The connected components of the graph.
+  */
+
+  public static <T> Labels connectedComponents(Graph<T> graph){
+    return connectedComponents(graph.freeze(), ForkJoinPool.commonPool());
+  }
+
+  /**
+    Computes the connected components of a frozen graph with the given parallelism.
+
+    Desc: This method runs the steps on a dedicated `ForkJoinPool` of `parallelism` workers, which is shut down before returning.
+
+    @param graph The frozen graph to partition.
+    @param parallelism The number of worker threads.
+    @return The connected components of the graph.
+    @throws IllegalArgumentException if `parallelism` is not positive.
+  */
+
+  public static <T> Labels connectedComponents(CSRGraph<T> graph, int parallelism){
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return connectedComponents(graph, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+    Computes the connected components of a frozen graph on the given pool using the Afforest algorithm.
+
+    Desc: Every vertex holds a parent in an `AtomicIntegerArray`, initially itself, and linking two vertices hooks the higher of their roots under the lower one with a compare-and-set (Shiloach-Vishkin hooking),
+    so the parent links stay acyclic while many threads link at once. A compression step then points every vertex straight at its root.
+    Instead of linking every arc, Afforest (Sutton et al.) runs the following parallel steps on the `pool`:
+      - Every vertex links its first `NEIGHBOR_ROUNDS` arcs, one round at a time, which is enough to merge most of a large component.
+      - `SAMPLES` random vertices are drawn to guess the largest component.
+      - Every vertex outside that component links its remaining arcs. The vertices of the largest component, usually most of the graph, are skipped,
+        since every arc leaving them is also found from its other endpoint: in the other row for undirected graphs, in the row of the transpose for directed graphs.
+    In a directed graph the arcs are followed in both directions, so the components are the weakly connected components, see `stronglyConnectedComponents` for the strong ones.
+    Kruskal's and Boruvka's algorithms return a spanning forest holding one tree per component, the labels tell which tree each vertex belongs to.
+
+    The time complexity of this method is O(|V| + |E|) work in the worst case, spread over the workers of the pool, and much less on graphs with a giant component.
+
+    @param graph The frozen graph to partition.
+    @param pool The pool that runs the steps.
+    @return The connected components of the graph.
+  */
+
+  public static <T> Labels connectedComponents(CSRGraph<T> graph, ForkJoinPool pool){
+    int n = graph.vertexCount();
+    AtomicIntegerArray parents = new AtomicIntegerArray(n);
+    for(int v = 0; v < n; v++) parents.set(v, v);
+
+    for(int r = 0; r < NEIGHBOR_ROUNDS; r++){
+      int round = r;
+      pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> {
+        if(round < graph.degree(v)) link(parents, v, graph.target(graph.offset(v) + round));
+      })).join();
+      compress(parents, pool);
+    }
+
+    int largest = largestComponent(parents);
+    CSRGraph<T> reverse = graph.isDirected() ? graph.transpose() : null;
+    pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> {
+      if(parents.get(v) == largest) return;
+      for(int a = graph.offset(v) + NEIGHBOR_ROUNDS; a < graph.offset(v + 1); a++) link(parents, v, graph.target(a));
+      if(reverse != null)
+        for(int a = reverse.offset(v); a < reverse.offset(v + 1); a++) link(parents, v, reverse.target(a));
+    })).join();
+    compress(parents, pool);
+
+    int[] roots = new int[n];
+    for(int v = 0; v < n; v++) roots[v] = parents.get(v);
+    return relabel(roots);
+  }
+
+  /**
+    Computes the strongly connected components of a graph.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and delegates to `stronglyConnectedComponents(CSRGraph)`.
+    The ids of the returned labels are the ids of the frozen graph, map them back with `CSRGraph.dataOf`.
+
+    @param graph The graph to partition.
+    @return The strongly connected components of the graph.
+  */
+
+  public static <T> Labels stronglyConnectedComponents(Graph<T> graph){
+    return stronglyConnectedComponents(graph.freeze());
+  }
+
+  /**
+    Computes the strongly connected components of a frozen graph using Tarjan's algorithm.
+
+    Desc: Two vertices are in the same strongly connected component if each one can be reached from the other.
+    Tarjan's algorithm numbers the vertices in depth-first order and keeps the vertices of the components not closed yet on a stack,
+    a vertex whose lowest reachable number is its own closes a component made of itself and the vertices above it on the stack.
+    The depth-first search keeps its own stack of (vertex, next arc) in two int arrays instead of recursing, so long paths cannot overflow the call stack.
+    An undirected graph stores every edge in both rows, so its strongly connected components are its connected components.
+
+    The time complexity of this method is O(|V| + |E|).
+
+    @param graph The frozen graph to partition.
+    @return The strongly connected components of the graph.
+  */
+
+  public static <T> Labels stronglyConnectedComponents(CSRGraph<T> graph){
+    int n = graph.vertexCount();
+    int[] order = new int[n], low = new int[n], roots = new int[n];
+    int[] path = new int[n], arcs = new int[n], stack = new int[n];
+    boolean[] onStack = new boolean[n];
+    int counter = 0, stackSize = 0;
+
+    for(int s = 0; s < n; s++){
+      if(order[s] != 0) continue;
+      int depth = 0;
+      path[0] = s;
+      arcs[0] = graph.offset(s);
+      order[s] = low[s] = ++counter;
+      stack[stackSize++] = s;
+      onStack[s] = true;
+      while(depth >= 0){
+        int v = path[depth];
+        if(arcs[depth] < graph.offset(v + 1)){
+          int u = graph.target(arcs[depth]++);
+          if(order[u] == 0){
+            path[++depth] = u;
+            arcs[depth] = graph.offset(u);
+            order[u] = low[u] = ++counter;
+            stack[stackSize++] = u;
+            onStack[u] = true;
+          } else if(onStack[u]) low[v] = Math.min(low[v], order[u]);
+          continue;
+        }
+        if(low[v] == order[v]){
+          int u;
+          do {
+            u = stack[--stackSize];
+            onStack[u] = false;
+            roots[u] = v;
+          } while(u != v);
+        }
+        if(--depth >= 0) low[path[depth]] = Math.min(low[path[depth]], low[v]);
+      }
+    }
+    return relabel(roots);
+  }
+
+  /**
+    Joins the trees of two vertices, hooking the higher root under the lower one and retrying while other threads move either root.
+  */
+
+  private static void link(AtomicIntegerArray parents, int u, int v){
+    int p1 = parents.get(u), p2 = parents.get(v);
+    while(p1 != p2){
+      int high = Math.max(p1, p2), low = Math.min(p1, p2);
+      int parent = parents.get(high);
+      if(parent == low || (parent == high && parents.compareAndSet(high, high, low))) return;
+      p1 = parents.get(parents.get(high));
+      p2 = parents.get(low);
+    }
+  }
+
+  /**
+    Points every vertex straight at the root of its tree.
+  */
+
+  private static void compress(AtomicIntegerArray parents, ForkJoinPool pool){
+    pool.submit(() -> IntStream.range(0, parents.length()).parallel().forEach(v -> {
+      int p = parents.get(v);
+      while(p != parents.get(p)) p = parents.get(p);
+      parents.set(v, p);
+    })).join();
+  }
+
+  /**
+    Returns the most frequent root among `SAMPLES` vertices drawn with a fixed seed, -1 if the graph has no vertex.
+  */
+
+  private static int largestComponent(AtomicIntegerArray parents){
+    int n = parents.length();
+    if(n == 0) return -1;
+    int[] sample = new int[SAMPLES];
+    Random random = new Random(n);
+    for(int i = 0; i < SAMPLES; i++) sample[i] = parents.get(random.nextInt(n));
+    Arrays.sort(sample);
+    int best = sample[0], bestCount = 0;
+    for(int i = 0, j; i < SAMPLES; i = j){
+      for(j = i; j < SAMPLES && sample[j] == sample[i]; j++);
+      if(j - i > bestCount){
+        best = sample[i];
+        bestCount = j - i;
+      }
+    }
+    return best;
+  }
+
+  /**
+    Numbers the components from 0 in the order of their lowest vertex id.
+
+    @param roots The representative vertex of the component of each vertex, overwritten by the component numbers.
+    @return The labels of the components.
+  */
+
+  private static Labels relabel(int[] roots){
+    int n = roots.length, count = 0;
+    int[] numbers = new int[n];
+    Arrays.fill(numbers, -1);
+    for(int v = 0; v < n; v++){
+      int r = roots[v];
+      if(numbers[r] < 0) numbers[r] = count++;
+      roots[v] = numbers[r];
+    }
+    return new Labels(roots, count);
+  }
+}
@@ -0,0 +1,92 @@
+package graph;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConcurrentDisjointSet {
+    private final AtomicIntegerArray parent;
+
+    /**
+      Constructs a new ConcurrentDisjointSet object holding the elements 0 to n - 1.
+
+      Desc: This constructor initializes a lock-free disjoint set over densely numbered elements, it is the concurrent sibling of `DisjointSet`.
+      The `parent` array stores the parent of each element, initially every element is its own parent, representing a disjoint set with only one element.
+      All updates are made with compare-and-set on the array, so `find` and `union` can be called from several threads at once without locking.
+
+      @param n The number of elements.
+    */
+
+    public ConcurrentDisjointSet(int n) {
+      parent = new AtomicIntegerArray(n);
+      for(int i = 0; i < n; i++) parent.set(i, i);
+    }
+
+    /**
+      Finds the representative (root) of the set that the specified element belongs to.
+      Performs path halving during the find operation for optimization.
+
+      Desc: This method walks up the parent links until it reaches an element that is its own parent, which is the representative of the set.
+      While walking, it tries to replace the parent of each visited element by its grandparent with a compare-and-set.
+      A failed compare-and-set only means another thread already shortened that link, so it is simply ignored.
+      The walk is iterative, so long chains cannot overflow the stack.
+      If other threads are running `union` concurrently, the returned root may stop being a root right after it is returned.
+
+      @param element The element to find the representative of.
+      @return The representative (root) of the set.
+    */
+
+    public int find(int element) {
+      int p = parent.get(element);
+      while(p != element) {
+        int grandparent = parent.get(p);
+        if(grandparent != p) parent.compareAndSet(element, p, grandparent);
+        element = p;
+        p = parent.get(element);
+      }
+      return element;
+    }
+
+    /**
+      Unions the sets that contain the specified elements.
+
+      Desc: This method finds the roots of both elements and links the root with the lower index under the root with the higher index using a compare-and-set.
+      Linking by index keeps the parent links acyclic even when several threads link roots at the same time.
+      If the compare-and-set fails because another thread changed that root in the meantime, the roots are found again and the link is retried.
+
+      @param element1 The first element.
+      @param element2 The second element.
+      @return true if the sets were merged by this call, false if the elements were already in the same set.
+    */
+
+    public boolean union(int element1, int element2) {
+      while(true) {
+        int root1 = find(element1);
+        int root2 = find(element2);
+        if(root1 == root2) return false;
+        if(root1 > root2) {
+          int swap = root1;
+          root1 = root2;
+          root2 = swap;
+        }
+        if(parent.compareAndSet(root1, root1, root2)) return true;
+      }
+    }
+
+    /**
+      Checks whether the specified elements are in the same set.
+
+      Desc: This method compares the roots of both elements, retrying while the first root stops being a root during the check,
+      so the answer is consistent even with concurrent unions.
+
+      @param element1 The first element.
+      @param element2 The second element.
+      @return true if both elements are in the same set, false otherwise.
+    */
+
+    public boolean connected(int element1, int element2) {
+      while(true) {
+        int root1 = find(element1);
+        int root2 = find(element2);
+        if(root1 == root2) return true;
+        if(parent.get(root1) == root1) return false;
+      }
+    }
+}
@@ -0,0 +1,353 @@
+package graph;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ConcurrentGraph<T> {
+  private final static int STRIPES = 64; // Number of vertex lock stripes, a power of two
+
+  private final boolean directed; // indicates whether the graph is directed or undirected.
+  private final boolean weighted; // indicates whether the graph is weighted or unweighted.
+  private final Set<Vertex<T>> vertices; // The set of vertices in the graph.
+  private final Set<Edge<T>> edges; // The set of edges in the graph.
+  private final ConcurrentMap<Vertex<T>, Set<Edge<T>>> outgoing; // The edges leaving each vertex.
+  private final ConcurrentMap<Vertex<T>, Set<Edge<T>>> incoming; // The edges arriving at each vertex.
+  private final ReentrantLock[] stripes; // Locks guarding the vertices hashed to them and their adjacency entries
+  private final ReentrantReadWriteLock snapshotLock; // Shared by the writers, exclusive for `snapshot`
+
+  /**
+    Constructs an empty graph that several threads can modify at once.
+
+    Desc: This graph holds the same data as `Graph` (vertex and edge sets plus outgoing and incoming adjacency indexes) in concurrent structures:
+    the sets are `ConcurrentHashMap` key sets and the indexes are `ConcurrentHashMap`s of per-vertex concurrent sets, so threads putting edges on different vertices never contend.
+    Every write holds the lock stripes of the vertices involved, taken in stripe order,
+    so an edge can never be added to a vertex that is being removed, nor be half registered while the same edge is removed.
+    Every write also holds the read side of a `ReentrantReadWriteLock`, whose write side is taken by `snapshot` to copy the graph at a single point in time.
+
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges in the graph are weighted or not.
+  */
+
+  public ConcurrentGraph(boolean directed, boolean weighted){
+    this.directed = directed;
+    this.weighted = weighted;
+    this.vertices = ConcurrentHashMap.newKeySet();
+    this.edges = ConcurrentHashMap.newKeySet();
+    this.outgoing = new ConcurrentHashMap<>();
+    this.incoming = new ConcurrentHashMap<>();
+    this.stripes = new ReentrantLock[STRIPES];
+    for(int i = 0; i < STRIPES; i++) this.stripes[i] = new ReentrantLock();
+    this.snapshotLock = new ReentrantReadWriteLock();
+  }
+
+  /**
+    Constructs an empty undirected and unweighted graph that several threads can modify at once.
+  */
+
+  public ConcurrentGraph(){
+    this(false, false);
+  }
+
+  /**
+    Adds a vertex to the graph with the specified data value.
+
+    Desc: Empty outgoing and incoming adjacency entries are registered before the vertex is published in the vertex set, under the stripe of the vertex.
+
+    @param data The data value of the vertex to be added.
+  */
+
+  public void addVertex(T data){
+    Vertex<T> v = new Vertex<T>(data);
+    this.snapshotLock.readLock().lock();
+    try {
+      lock(v, v);
+      try {
+        if(this.vertices.contains(v)) return;
+        this.outgoing.put(v, ConcurrentHashMap.newKeySet());
+        this.incoming.put(v, ConcurrentHashMap.newKeySet());
+        this.vertices.add(v);
+      } finally {
+        unlock(v, v);
+      }
+    } finally {
+      this.snapshotLock.readLock().unlock();
+    }
+  }
+
+  /**
+    Removes a vertex from the graph by its data value, together with every edge incident to it.
+
+    Desc: The incident edges are removed one by one while the vertex is still published, each under the stripes of both of its endpoints, as in `removeEdge`,
+    so an equal vertex cannot be added back and reach an equal edge while the edge is half removed.
+    The vertex is then unpublished under its stripe, but only once it has no edge left: an edge put meanwhile by another thread is removed by another round,
+    so no edge outlives the vertex.
+
+    @param data The data value of the vertex to be removed.
+    @throws NoSuchElementException if the vertex with the specified data value is not found.
+  */
+
+  public void removeVertex(T data){
+    Vertex<T> v = new Vertex<T>(data);
+    this.snapshotLock.readLock().lock();
+    try {
+      while(true){
+        List<Edge<T>> incident;
+        lock(v, v);
+        try {
+          if(!this.vertices.contains(v)) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", data));
+          Set<Edge<T>> out = this.outgoing.get(v), in = this.incoming.get(v);
+          if(out.isEmpty() && in.isEmpty()){
+            this.vertices.remove(v);
+            this.outgoing.remove(v);
+            this.incoming.remove(v);
+            return;
+          }
+          incident = new ArrayList<>(out);
+          incident.addAll(in);
+        } finally {
+          unlock(v, v);
+        }
+        for(Edge<T> e : incident) removeIncident(e);
+      }
+    } finally {
+      this.snapshotLock.readLock().unlock();
+    }
+  }
+
+  /**
+    Adds an edge to the graph between two vertices with optional weight.
+
+    Desc: This method behaves like `Graph.putEdge`, and can be called by several threads at once.
+    Both endpoint stripes are held while the presence of the vertices is checked and the edge registered, so the edge cannot outlive a concurrent `removeVertex`.
+    If the graph is not weighted, the weight is dropped and a message is printed.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+    @param weight The weight of the edge (optional).
+    @throws NoSuchElementException if either of the vertices is not found in the graph.
+  */
+
+  public void putEdge(T vData, T uData, Integer weight){
+    Integer newWeight = weight;
+
+    if(!this.weighted && weight != null){
+      System.out.println(String.format("Non-weighted graph, the given weight (%s) was not considered.", weight));
+      newWeight = null;
+    }
+
+    Vertex<T> v = new Vertex<T>(vData), u = new Vertex<T>(uData);
+    Edge<T> e = new Edge<T>(v, u, newWeight, this.directed);
+    this.snapshotLock.readLock().lock();
+    try {
+      lock(v, u);
+      try {
+        if(!this.vertices.contains(v) || !this.vertices.contains(u))
+          throw new NoSuchElementException(String.format("Neither %s or %s was found.", vData, uData));
+        if(this.edges.add(e)){
+          this.outgoing.get(v).add(e);
+          this.incoming.get(u).add(e);
+        }
+      } finally {
+        unlock(v, u);
+      }
+    } finally {
+      this.snapshotLock.readLock().unlock();
+    }
+  }
+
+  /**
+    Adds an unweighted edge to the graph between two vertices.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+  */
+
+  public void putEdge(T vData, T uData){
+    this.putEdge(vData, uData, null);
+  }
+
+  /**
+    Removes an edge from the graph between two vertices with the specified weight.
+
+    Desc: Both endpoint stripes are held, so the edge is never removed while it is being registered by `putEdge`.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+    @param weight The weight of the edge.
+    @throws NoSuchElementException if the edge is not found in the graph.
+  */
+
+  public void removeEdge(T vData, T uData, Integer weight){
+    Vertex<T> v = new Vertex<T>(vData), u = new Vertex<T>(uData);
+    Edge<T> e = new Edge<T>(v, u, weight, this.directed);
+    this.snapshotLock.readLock().lock();
+    try {
+      lock(v, u);
+      try {
+        if(!this.edges.remove(e)) throw new NoSuchElementException(String.format("Edge %s was not found.", e.toString()));
+        Set<Edge<T>> out = this.outgoing.get(v), in = this.incoming.get(u);
+        if(out != null) out.remove(e);
+        if(in != null) in.remove(e);
+      } finally {
+        unlock(v, u);
+      }
+    } finally {
+      this.snapshotLock.readLock().unlock();
+    }
+  }
+
+  /**
+    Removes an unweighted edge from the graph between two vertices.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+  */
+
+  public void removeEdge(T vData, T uData){
+    this.removeEdge(vData, uData, null);
+  }
+
+  /**
+    Initializes the graph with the vertices 0 to `n-1`.
+
+    @param n The number of vertices.
+  */
+
+  @SuppressWarnings("unchecked")
+  public void initializeGraph(int n){
+    for(int i = 0; i < n; i++){
+      this.addVertex((T) Integer.valueOf(i));
+    }
+  }
+
+  /**
+    Retrieves the set of vertices in the graph.
+
+    Desc: The returned view is weakly consistent: it can be iterated while other threads modify the graph, but may or may not reflect their changes.
+    Use `snapshot` for a consistent copy.
+
+    @return An unmodifiable view of the vertices of the graph.
+  */
+
+  public Set<Vertex<T>> getVertices(){
+    return Collections.unmodifiableSet(this.vertices);
+  }
+
+  /**
+    Retrieves the set of edges in the graph.
+
+    Desc: The returned view is weakly consistent, see `getVertices`.
+
+    @return An unmodifiable view of the edges of the graph.
+  */
+
+  public Set<Edge<T>> getEdges(){
+    return Collections.unmodifiableSet(this.edges);
+  }
+
+  /**
+    Returns whether the graph is directed.
+
+    @return true if the graph is directed, false otherwise.
+  */
+
+  public boolean isDirected(){
+    return directed;
+  }
+
+  /**
+    Returns whether the graph is weighted.
+
+    @return true if the graph is weighted, false otherwise.
+  */
+
+  public boolean isWeighted(){
+    return weighted;
+  }
+
+  /**
+    Copies the graph, at a single point in time, into a plain `Graph`.
+
+    Desc: This method takes the write side of the snapshot lock, so it waits for the writes in progress to finish and holds back new ones during the copy.
+    The copy holds every vertex and edge present at that point and none of the later changes,
+    so algorithms that take a `Graph`, such as `Kruskal.MST`, can run on it while ingestion goes on.
+
+    @return A copy of the graph.
+  */
+
+  public Graph<T> snapshot(){
+    Graph<T> copy = new Graph<T>(this.directed, this.weighted);
+    this.snapshotLock.writeLock().lock();
+    try {
+      for(Vertex<T> v : this.vertices) copy.addVertex(v.getData());
+      for(Edge<T> e : this.edges) copy.putEdge(e.getSource().getData(), e.getTarget().getData(), e.getWeight());
+    } finally {
+      this.snapshotLock.writeLock().unlock();
+    }
+    return copy;
+  }
+
+  /**
+    Removes an edge from the edge set and the indexes of its endpoints under the stripes of both endpoints, if it is still in the graph.
+  */
+
+  private void removeIncident(Edge<T> e){
+    Vertex<T> v = e.getSource(), u = e.getTarget();
+    lock(v, u);
+    try {
+      if(!this.edges.remove(e)) return;
+      Set<Edge<T>> out = this.outgoing.get(v), in = this.incoming.get(u);
+      if(out != null) out.remove(e);
+      if(in != null) in.remove(e);
+    } finally {
+      unlock(v, u);
+    }
+  }
+
+  /**
+    Locks the stripes of two vertices, the lower stripe first so that two writers never wait on each other.
+  */
+
+  private void lock(Vertex<T> v, Vertex<T> u){
+    int i = stripeIndex(v), j = stripeIndex(u);
+    this.stripes[Math.min(i, j)].lock();
+    if(i != j) this.stripes[Math.max(i, j)].lock();
+  }
+
+  /**
+    Unlocks the stripes locked by `lock`.
+  */
+
+  private void unlock(Vertex<T> v, Vertex<T> u){
+    int i = stripeIndex(v), j = stripeIndex(u);
+    if(i != j) this.stripes[Math.max(i, j)].unlock();
+    this.stripes[Math.min(i, j)].unlock();
+  }
+
+  /**
+    Returns the index of the lock stripe of a vertex, spreading the high bits of its hash code.
+  */
+
+  private static int stripeIndex(Vertex<?> v){
+    int h = v.hashCode();
+    return (h ^ (h >>> 16)) & (STRIPES - 1);
+  }
+
+  /**
+    Returns a string representation of the graph, in the format of `Graph.toString`.
+
+    @return A string representation of the graph.
+  */
+
+  @Override
+  public String toString(){
+    String settings = (this.directed ? "directed" : "undirected") + (this.weighted ? " and weighted" : " and unweighted");
+    return String.format("ConcurrentGraph G %s such as G = (V, E): \n(V = %s,\n E = %s)", settings, this.vertices, this.edges);
+  }
+}
@@ -0,0 +1,401 @@
+package graph;
+import java.util.Arrays;
+
+public abstract class Dijkstra {
+  public final static long UNREACHABLE = Long.MAX_VALUE; // Distance of the vertices that cannot be reached
+  private final static int MAX_DIAL_LENGTH = 1 << 20; // Longest arc the bucket queue of `dial` accepts
+
+  /**
+    The shortest paths from one source vertex to every vertex of a frozen graph.
+  */
+
+  public static class Paths {
+    private final int source; // id of the source vertex
+    private final long[] distances; // distance from the source to each vertex, `UNREACHABLE` when there is no path
+    private final int[] parents; // previous vertex on the shortest path to each vertex, -1 for the source and the unreachable vertices
+
+    Paths(int source, long[] distances, int[] parents){
+      this.source = source;
+      this.distances = distances;
+      this.parents = parents;
+    }
+
+    /**
+      Returns the id of the source vertex.
+    */
+
+    public int getSource(){
+      return source;
+    }
+
+    /**
+      Returns the distance from the source to each vertex, indexed by vertex id, `UNREACHABLE` when there is no path.
+    */
+
+    public long[] getDistances(){
+      return distances;
+    }
+
+    /**
+      Returns the previous vertex on the shortest path to each vertex, indexed by vertex id, -1 for the source and the unreachable vertices.
+    */
+
+    public int[] getParents(){
+      return parents;
+    }
+
+    /**
+      Returns the vertices of the shortest path from the source to a target.
+
+      @param target The id of the target vertex.
+      @return The vertex ids from the source to the target, both included, or an empty array if the target cannot be reached.
+    */
+
+    public int[] path(int target){
+      if(this.distances[target] == UNREACHABLE) return new int[0];
+      int length = 1;
+      for(int v = target; v != this.source; v = this.parents[v]) length++;
+      int[] path = new int[length];
+      for(int v = target, i = length - 1; i >= 0; v = this.parents[v], i--) path[i] = v;
+      return path;
+    }
+  }
+
+  /**
+    Computes the shortest paths from a source vertex to every vertex of a graph.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and delegates to `shortestPaths(CSRGraph, int)`.
+    The ids of the returned paths are the ids of the frozen graph, map them back with `CSRGraph.dataOf`.
+
+    @param graph The graph to search.
+    @param source The data value of the source vertex.
+    @return The shortest paths from the source.
+    @throws NoSuchElementException if the source vertex is not found.
+    @throws IllegalArgumentException if an edge has a negative weight.
+  */
+
+  public static <T> Paths shortestPaths(Graph<T> graph, T source){
+    CSRGraph<T> frozen = graph.freeze();
+    return shortestPaths(frozen, frozen.idOf(source));
+  }
+
+  /**
+    Computes the shortest paths from a source vertex to every vertex of a frozen graph using Dijkstra's algorithm with an indexed binary heap.
+
+    Desc: This method keeps the vertices reached but not settled in an `IndexedMinHeap` keyed by their tentative distance.
+    Each polled vertex is settled, and every arc leaving it that shortens the distance of its target lowers the target's key in place (decrease-key) instead of inserting a duplicate.
+    The length of an arc is its weight, or 1 if the graph is unweighted, so unweighted graphs get hop counts.
+    Undirected graphs are searched in both directions since every edge is stored in both rows.
+
+    The time complexity of this method is O(|E| log |V|).
+
+    @param graph The frozen graph to search.
+    @param source The id of the source vertex.
+    @return The shortest paths from the source.
+    @throws IllegalArgumentException if an arc has a negative weight.
+  */
+
+  public static <T> Paths shortestPaths(CSRGraph<T> graph, int source){
+    maxLength(graph);
+    int n = graph.vertexCount();
+    long[] distances = new long[n];
+    int[] parents = new int[n];
+    Arrays.fill(distances, UNREACHABLE);
+    Arrays.fill(parents, -1);
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+
+    distances[source] = 0;
+    heap.offer(source, 0);
+    while(!heap.isEmpty()){
+      int v = heap.poll();
+      for(int a = graph.offset(v); a < graph.offset(v + 1); a++){
+        int u = graph.target(a);
+        long d = distances[v] + length(graph, a);
+        if(d < distances[u]){
+          distances[u] = d;
+          parents[u] = v;
+          heap.offer(u, d);
+        }
+      }
+    }
+    return new Paths(source, distances, parents);
+  }
+
+  /**
+    Computes the shortest paths from a source vertex to every vertex of a frozen graph using Dial's bucket queue.
+
+    Desc: When every arc length is a small integer at most C, the tentative distances of the vertices waiting to be settled all lie within [d, d + C], where d is the distance being settled.
+    Dial's algorithm therefore keeps one bucket per distance modulo C + 1, each one a doubly linked list threaded through two int arrays, and scans the buckets in circular order.
+    Inserting, moving and removing a vertex are O(1), so the search runs in O(|E| + |V| C) instead of O(|E| log |V|) and never compares keys.
+    It is the variant to use on the generated files, whose weights are bounded by `matriceElementBoundary`.
+    The results are the same distances as `shortestPaths`, the parents may differ between paths of equal length.
+
+    @param graph The frozen graph to search.
+    @param source The id of the source vertex.
+    @return The shortest paths from the source.
+    @throws IllegalArgumentException if an arc has a negative weight or a weight above 2^20.
+  */
+
+  public static <T> Paths dial(CSRGraph<T> graph, int source){
+    int maxLength = maxLength(graph);
+    if(maxLength > MAX_DIAL_LENGTH) throw new IllegalArgumentException(String.format("Dial's algorithm supports arc lengths up to %d, found %d.", MAX_DIAL_LENGTH, maxLength));
+    int n = graph.vertexCount(), buckets = maxLength + 1;
+    long[] distances = new long[n];
+    int[] parents = new int[n];
+    int[] head = new int[buckets], next = new int[n], previous = new int[n];
+    Arrays.fill(distances, UNREACHABLE);
+    Arrays.fill(parents, -1);
+    Arrays.fill(head, -1);
+
+    distances[source] = 0;
+    link(head, next, previous, source, 0);
+    int queued = 1;
+    for(long current = 0; queued > 0; current++){
+      int b = (int) (current % buckets);
+      while(head[b] >= 0){
+        int v = head[b];
+        unlink(head, next, previous, v, b);
+        queued--;
+        for(int a = graph.offset(v); a < graph.offset(v + 1); a++){
+          int u = graph.target(a);
+          long d = current + length(graph, a);
+          if(d < distances[u]){
+            if(distances[u] == UNREACHABLE) queued++;
+            else unlink(head, next, previous, u, (int) (distances[u] % buckets));
+            distances[u] = d;
+            parents[u] = v;
+            link(head, next, previous, u, (int) (d % buckets));
+          }
+        }
+      }
+    }
+    return new Paths(source, distances, parents);
+  }
+
+  /**
+    Computes the distance between two vertices of a frozen graph using a bidirectional Dijkstra search.
+
+    Desc: This method builds a `Bidirectional` search for the single query, which checks the weights and transposes the graph in O(|V| + |E|).
+    For several queries on the same graph, build one `Bidirectional` and reuse it.
+
+    @param graph The frozen graph to search.
+    @param source The id of the source vertex.
+    @param target The id of the target vertex.
+    @return The length of the shortest path from the source to the target, `UNREACHABLE` if there is none.
+    @throws IllegalArgumentException if an arc has a negative weight.
+  */
+
+  public static <T> long distance(CSRGraph<T> graph, int source, int target){
+    return new Bidirectional<T>(graph).distance(source, target);
+  }
+
+  /**
+    Computes the shortest path between two vertices of a frozen graph using a bidirectional Dijkstra search.
+
+    Desc: This method builds a `Bidirectional` search for the single query, see `distance(CSRGraph, int, int)`.
+
+    @param graph The frozen graph to search.
+    @param source The id of the source vertex.
+    @param target The id of the target vertex.
+    @return The vertex ids from the source to the target, both included, or an empty array if the target cannot be reached.
+    @throws IllegalArgumentException if an arc has a negative weight.
+  */
+
+  public static <T> int[] path(CSRGraph<T> graph, int source, int target){
+    return new Bidirectional<T>(graph).path(source, target);
+  }
+
+  /**
+    Point-to-point shortest path queries on a frozen graph, answered by bidirectional Dijkstra searches.
+  */
+
+  public static class Bidirectional<T> {
+    private final CSRGraph<T> forward; // the graph, walked from the source
+    private final CSRGraph<T> backward; // its transpose, walked from the target
+    private long[][] distances; // distances of the forward (0) and backward (1) searches, allocated by the first query
+    private int[][] parents; // parents of the forward (0) and backward (1) searches
+    private int[][] touched; // vertices reached by each search since the last reset, the only ones whose state must be cleared
+    private int[] touchedCount; // number of vertices in `touched` for each search
+    private IndexedMinHeap[] heaps; // vertices reached but not settled by each search
+    private long best; // length of the shortest path found by the last query
+    private int meet; // vertex where the shortest path found by the last query crosses from one search to the other
+
+    /**
+      Prepares point-to-point queries on a frozen graph.
+
+      Desc: The weights are checked and the transpose is built (the graph itself when it is undirected) once, here, so a query only pays for the vertices its searches reach.
+      A query runs a forward search from the source on the graph and a backward search from the target on the transpose, always advancing the side whose next vertex is closer.
+      Every arc scanned by one side that reaches a vertex already reached by the other side closes a candidate path, and the shortest candidate is kept.
+      The search stops as soon as the distances of the next vertices of both sides add up to at least that candidate, which no later path could beat,
+      so both searches only cover about a ball of half the distance each, instead of the full ball of `shortestPaths`.
+      The distance, parent and heap arrays are allocated by the first query and reused by the next ones: only the entries of the vertices reached by a query are reset.
+      An instance must not be queried by several threads at once.
+
+      @param graph The frozen graph to search.
+      @throws IllegalArgumentException if an arc has a negative weight.
+    */
+
+    public Bidirectional(CSRGraph<T> graph){
+      maxLength(graph);
+      this.forward = graph;
+      this.backward = graph.transpose();
+    }
+
+    /**
+      Computes the distance between two vertices.
+
+      @param source The id of the source vertex.
+      @param target The id of the target vertex.
+      @return The length of the shortest path from the source to the target, `UNREACHABLE` if there is none.
+    */
+
+    public long distance(int source, int target){
+      search(source, target);
+      return this.best;
+    }
+
+    /**
+      Computes the shortest path between two vertices.
+
+      @param source The id of the source vertex.
+      @param target The id of the target vertex.
+      @return The vertex ids from the source to the target, both included, or an empty array if the target cannot be reached.
+    */
+
+    public int[] path(int source, int target){
+      search(source, target);
+      if(this.best == UNREACHABLE) return new int[0];
+      int forward = 0, backward = 0;
+      for(int v = this.meet; this.parents[0][v] >= 0; v = this.parents[0][v]) forward++;
+      for(int v = this.meet; this.parents[1][v] >= 0; v = this.parents[1][v]) backward++;
+      int[] path = new int[forward + backward + 1];
+      int i = forward;
+      for(int v = this.meet; i >= 0; v = this.parents[0][v]) path[i--] = v;
+      i = forward + 1;
+      for(int v = this.parents[1][this.meet]; v >= 0; v = this.parents[1][v]) path[i++] = v;
+      return path;
+    }
+
+    /**
+      Runs both searches between two vertices, leaving the length of the shortest path in `best` and its crossing vertex in `meet`.
+    */
+
+    private void search(int source, int target){
+      reset();
+      this.best = UNREACHABLE;
+      this.meet = -1;
+      reach(0, source, 0, -1);
+      reach(1, target, 0, -1);
+      if(source == target){
+        this.best = 0;
+        this.meet = source;
+        return;
+      }
+
+      while(!this.heaps[0].isEmpty() && !this.heaps[1].isEmpty()){
+        long forward = this.distances[0][this.heaps[0].peek()], backward = this.distances[1][this.heaps[1].peek()];
+        if(this.best != UNREACHABLE && forward + backward >= this.best) break;
+        int s = forward <= backward ? 0 : 1;
+        CSRGraph<T> side = s == 0 ? this.forward : this.backward;
+        long[] mine = this.distances[s], other = this.distances[1 - s];
+        int v = this.heaps[s].poll();
+        for(int a = side.offset(v); a < side.offset(v + 1); a++){
+          int u = side.target(a);
+          long d = mine[v] + length(side, a);
+          if(d >= mine[u]) continue;
+          reach(s, u, d, v);
+          // the path through `u` is a candidate once both searches reached it, checked whenever either side lowers its distance to `u`
+          if(other[u] != UNREACHABLE && d + other[u] < this.best){
+            this.best = d + other[u];
+            this.meet = u;
+          }
+        }
+      }
+    }
+
+    /**
+      Gives a vertex a lower distance in one search and queues it.
+    */
+
+    private void reach(int s, int v, long d, int parent){
+      if(this.distances[s][v] == UNREACHABLE) this.touched[s][this.touchedCount[s]++] = v;
+      this.distances[s][v] = d;
+      this.parents[s][v] = parent;
+      this.heaps[s].offer(v, d);
+    }
+
+    /**
+      Allocates the state of the searches on the first query, and clears the vertices reached by the previous query on the next ones.
+    */
+
+    private void reset(){
+      int n = this.forward.vertexCount();
+      if(this.distances == null){
+        this.distances = new long[2][n];
+        this.parents = new int[2][n];
+        this.touched = new int[2][n];
+        this.touchedCount = new int[2];
+        this.heaps = new IndexedMinHeap[] {new IndexedMinHeap(n), new IndexedMinHeap(n)};
+        for(int s = 0; s < 2; s++){
+          Arrays.fill(this.distances[s], UNREACHABLE);
+          Arrays.fill(this.parents[s], -1);
+        }
+        return;
+      }
+      for(int s = 0; s < 2; s++){
+        for(int i = 0; i < this.touchedCount[s]; i++){
+          int v = this.touched[s][i];
+          this.distances[s][v] = UNREACHABLE;
+          this.parents[s][v] = -1;
+        }
+        this.touchedCount[s] = 0;
+        this.heaps[s].clear();
+      }
+    }
+  }
+
+  /**
+    Returns the length of an arc, its weight or 1 if the graph is unweighted.
+  */
+
+  private static <T> int length(CSRGraph<T> graph, int arc){
+    return graph.isWeighted() ? graph.weight(arc) : 1;
+  }
+
+  /**
+    Returns the longest arc length of the graph, 0 if it has no arc.
+
+    @throws IllegalArgumentException if an arc has a negative weight.
+  */
+
+  private static <T> int maxLength(CSRGraph<T> graph){
+    int max = 0;
+    for(int a = 0; a < graph.arcCount(); a++){
+      int w = length(graph, a);
+      if(w < 0) throw new IllegalArgumentException("Dijkstra's algorithm requires non-negative weights, found " + w + ".");
+      max = Math.max(max, w);
+    }
+    return max;
+  }
+
+  /**
+    Inserts a vertex at the head of a bucket.
+  */
+
+  private static void link(int[] head, int[] next, int[] previous, int v, int bucket){
+    next[v] = head[bucket];
+    previous[v] = -1;
+    if(head[bucket] >= 0) previous[head[bucket]] = v;
+    head[bucket] = v;
+  }
+
+  /**
+    Removes a vertex from its bucket.
+  */
+
+  private static void unlink(int[] head, int[] next, int[] previous, int v, int bucket){
+    if(previous[v] >= 0) next[previous[v]] = next[v];
+    else head[bucket] = next[v];
+    if(next[v] >= 0) previous[next[v]] = previous[v];
+  }
+}
@@ -48,8 +48,10 @@ public class DisjointSet<T> {
       Desc: This method finds the representative (root) of the set that the specified element belongs to in the disjoint set data structure. 
       It utilizes path compression to optimize future find operations.
       Initially, it retrieves the parent of the element from the `parent` map. 
-      If the element is not its own parent (i.e., it is not the representative), the method recursively applies the find operation on the parent until the representative is reached. 
-      During this process, the element's parent is updated to the representative, effectively compressing the path and reducing the height of the tree.
+      If the element is not its own parent (i.e., it is not the representative), the method walks up the parents until the representative is reached. 
+      It then walks the same path a second time, updating the parent of every element on it to the representative, effectively compressing the path and reducing the height of the tree.
+      Both walks are iterative, so long chains cannot overflow the stack.
+      The length of the path walked is recorded in the `Metrics` histogram "disjointSet.find.pathLength" when metrics are enabled.
       Finally, the method returns the representative of the set that the element belongs to.
       By calling this method on a DisjointSet object, you can find the representative (root) of a specific element and perform path compression to optimize future find operations.
 
@@ -58,9 +60,19 @@ public class DisjointSet<T> {
     */
 
     public T find(T element) {
-      if (!(parent.get(element).equals(element))) 
-        parent.put(element, find(parent.get(element)));
-      return parent.get(element);
+      T root = element;
+      int length = 0;
+      while (!(parent.get(root).equals(root))) {
+        root = parent.get(root);
+        length++;
+      }
+      if(Metrics.ENABLED) Metrics.FIND_PATH.record(length);
+      while (!(element.equals(root))) {
+        T next = parent.get(element);
+        parent.put(element, root);
+        element = next;
+      }
+      return root;
     }
 
     /**
@@ -82,12 +94,14 @@ public class DisjointSet<T> {
       T root1 = find(element1);
       T root2 = find(element2);
 
-      if(!(root1.equals(root2)))
+      if(!(root1.equals(root2))) {
+        if(Metrics.ENABLED) Metrics.UNIONS.increment();
         if(rank.get(root1) < rank.get(root2)) parent.put(root1, root2);
         else if(rank.get(root1) > rank.get(root2)) parent.put(root2, root1);
         else {
           parent.put(root2, root1);
           rank.put(root1, rank.get(root1) + 1);
-        } 
+        }
+      }
     }
 }
@@ -0,0 +1,238 @@
+package graph;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class DynamicMST<T> {
+  private final Graph<T> graph; // The graph whose minimum spanning forest is maintained
+  private final GraphListener<T> listener; // The hook registered on the graph
+  private LinkCutTree forest; // The spanning forest, with one node per vertex and one node per tree edge
+  private Map<Vertex<T>, Integer> vertexNodes; // The forest node of each vertex that has been an endpoint
+  private Map<Edge<T>, Integer> edgeNodes; // The forest node of each edge, tree or not
+  private Map<Integer, Edge<T>> nodeEdges; // The edge of each forest node that stands for an edge
+  private TreeMap<Long, Edge<T>> nonTree; // The edges outside the forest, by key
+  private Set<Edge<T>> tree; // The edges of the forest
+  private long weight; // The total weight of the forest
+
+  /**
+    Constructs the minimum spanning forest of an undirected graph and keeps it up to date as the graph changes.
+
+    Desc: This constructor inserts every edge of the graph into the forest, one at a time, and then registers itself on the graph,
+    so every later `putEdge`, `removeEdge`, `removeVertex` and `readAdjacentMatrix` updates the forest incrementally instead of requiring a new `Kruskal.MST` run.
+    The forest is stored in a `LinkCutTree` where every tree edge is a node of its own, carrying the key of the edge, so the heaviest edge on the path between two vertices is found in O(log |V|) amortized time.
+    Edges are compared by weight (an unweighted edge weighs 0) and then by their node id, so that keys are distinct and the forest is well defined.
+    Use `detach` to stop the updates once the forest is no longer needed.
+
+    @param graph The undirected graph.
+    @throws IllegalArgumentException if the graph is directed.
+  */
+
+  public DynamicMST(Graph<T> graph){
+    if(graph.isDirected()) throw new IllegalArgumentException("A dynamic minimum spanning tree requires an undirected graph.");
+    this.graph = graph;
+    this.listener = new GraphListener<T>() {
+      public void edgeAdded(Edge<T> edge){
+        insert(edge);
+      }
+
+      public void edgeRemoved(Edge<T> edge){
+        delete(edge);
+      }
+
+      public void vertexRemoved(Vertex<T> vertex){
+        Integer node = vertexNodes.remove(vertex);
+        if(node != null) forest.release(node);
+      }
+
+      public void cleared(){
+        reset();
+      }
+    };
+    reset();
+    graph.getEdges().forEach(this::insert);
+    graph.addListener(this.listener);
+  }
+
+  /**
+    Stops keeping the forest up to date with the graph.
+
+    Desc: This method unregisters the forest from the graph, later changes of the graph are no longer reflected and no longer pay for the update.
+  */
+
+  public void detach(){
+    this.graph.removeListener(this.listener);
+  }
+
+  /**
+    Returns the edges of the minimum spanning forest.
+
+    @return An unmodifiable view of the edges of the forest, updated as the graph changes.
+  */
+
+  public Set<Edge<T>> edges(){
+    return Collections.unmodifiableSet(this.tree);
+  }
+
+  /**
+    Hands every edge of the minimum spanning forest to a consumer.
+
+    @param consumer The consumer receiving the edges of the forest.
+  */
+
+  public void edges(EdgeConsumer<T> consumer){
+    for(Edge<T> e : this.tree) consumer.accept(e.getSource().getData(), e.getTarget().getData(), e.getWeight());
+  }
+
+  /**
+    Returns the number of edges of the minimum spanning forest.
+
+    @return The number of edges of the forest.
+  */
+
+  public int size(){
+    return this.tree.size();
+  }
+
+  /**
+    Returns the total weight of the minimum spanning forest.
+
+    @return The sum of the weights of the edges of the forest.
+  */
+
+  public long weight(){
+    return this.weight;
+  }
+
+  /**
+    Returns whether two vertices are connected in the graph.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+    @return true if a path joins the vertices, false otherwise.
+  */
+
+  public boolean connected(T vData, T uData){
+    if(vData.equals(uData)) return true;
+    Integer v = this.vertexNodes.get(new Vertex<T>(vData)), u = this.vertexNodes.get(new Vertex<T>(uData));
+    return v != null && u != null && this.forest.connected(v, u);
+  }
+
+  /**
+    Adds an edge of the graph to the forest, or to the non-tree edges.
+
+    Desc: If the endpoints are in different trees, the edge links them.
+    Otherwise the edge closes a cycle with the forest path between its endpoints, and the heaviest edge of that cycle is left out of the forest:
+    if it is the heaviest edge of the path, that edge is cut and replaced by the new one, else the new edge is kept as a non-tree edge.
+    This takes O(log |V|) amortized time, plus O(log |E|) to file a non-tree edge.
+  */
+
+  private void insert(Edge<T> e){
+    int v = vertexNode(e.getSource()), u = vertexNode(e.getTarget());
+    int x = this.forest.add(0);
+    this.forest.setKey(x, ((long) weightOf(e) << 32) | x);
+    this.edgeNodes.put(e, x);
+    this.nodeEdges.put(x, e);
+    if(v == u){
+      this.nonTree.put(this.forest.key(x), e);
+      return;
+    }
+    if(this.forest.connected(v, u)){
+      int heaviest = this.forest.pathMax(v, u);
+      if(this.forest.key(heaviest) < this.forest.key(x)){
+        this.nonTree.put(this.forest.key(x), e);
+        return;
+      }
+      Edge<T> replaced = this.nodeEdges.get(heaviest);
+      unlink(heaviest, replaced);
+      this.nonTree.put(this.forest.key(heaviest), replaced);
+    }
+    link(x, e);
+  }
+
+  /**
+    Removes an edge of the graph from the forest, or from the non-tree edges.
+
+    Desc: Removing a non-tree edge leaves the forest unchanged.
+    Removing a tree edge splits its tree in two, and the lightest non-tree edge joining the two halves, if any, is the replacement that restores a minimum spanning forest (cut property).
+    The non-tree edges are walked in ascending key order until the first one whose endpoints are no longer connected, each check taking O(log |V|) amortized time.
+    The walk stops early when a light replacement exists, but in the worst case it visits every non-tree edge.
+  */
+
+  private void delete(Edge<T> e){
+    Integer x = this.edgeNodes.remove(e);
+    if(x == null) return;
+    this.nodeEdges.remove(x);
+    if(this.nonTree.remove(this.forest.key(x)) != null){
+      this.forest.release(x);
+      return;
+    }
+    unlink(x, e);
+    this.forest.release(x);
+    for(Iterator<Map.Entry<Long, Edge<T>>> it = this.nonTree.entrySet().iterator(); it.hasNext(); ){
+      Map.Entry<Long, Edge<T>> candidate = it.next();
+      Edge<T> r = candidate.getValue();
+      if(!this.forest.connected(this.vertexNodes.get(r.getSource()), this.vertexNodes.get(r.getTarget()))){
+        int y = (int) (long) candidate.getKey(); // read before the removal, which may recycle the entry
+        it.remove();
+        link(y, r);
+        return;
+      }
+    }
+  }
+
+  /**
+    Links the node of an edge between the nodes of its endpoints and adds the edge to the forest.
+  */
+
+  private void link(int x, Edge<T> e){
+    this.forest.link(this.vertexNodes.get(e.getSource()), x);
+    this.forest.link(x, this.vertexNodes.get(e.getTarget()));
+    this.tree.add(e);
+    this.weight += weightOf(e);
+  }
+
+  /**
+    Cuts the node of a tree edge from the nodes of its endpoints and removes the edge from the forest.
+  */
+
+  private void unlink(int x, Edge<T> e){
+    this.forest.cut(this.vertexNodes.get(e.getSource()), x);
+    this.forest.cut(x, this.vertexNodes.get(e.getTarget()));
+    this.tree.remove(e);
+    this.weight -= weightOf(e);
+  }
+
+  /**
+    Returns the forest node of a vertex, adding it on first use.
+  */
+
+  private int vertexNode(Vertex<T> v){
+    return this.vertexNodes.computeIfAbsent(v, k -> this.forest.add(Long.MIN_VALUE));
+  }
+
+  /**
+    Returns the weight of an edge, 0 if the edge is unweighted.
+  */
+
+  private static <T> int weightOf(Edge<T> e){
+    return e.getWeight() == null ? 0 : e.getWeight();
+  }
+
+  /**
+    Drops every vertex and edge of the forest.
+  */
+
+  private void reset(){
+    this.forest = new LinkCutTree();
+    this.vertexNodes = new HashMap<>();
+    this.edgeNodes = new HashMap<>();
+    this.nodeEdges = new HashMap<>();
+    this.nonTree = new TreeMap<>();
+    this.tree = new LinkedHashSet<>();
+    this.weight = 0;
+  }
+}
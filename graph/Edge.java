@@ -132,7 +132,7 @@ class Edge<T> {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Edge<?> obj = (Edge<?>) o;
-    return this.source.equals(obj.getSource()) && this.target.equals(obj.getTarget()) && this.weight.equals(obj.getWeight());
+    return this.source.equals(obj.getSource()) && this.target.equals(obj.getTarget()) && Objects.equals(this.weight, obj.getWeight());
   }
 
   /**
@@ -142,13 +142,14 @@ class Edge<T> {
     It calculates and returns the hash code value for this edge based on its source vertex, target vertex, and weight.
     The method uses the `Objects.hash()` method to compute the hash code by combining the hash codes of the source vertex, target vertex, and weight fields.
     By overriding the `hashCode()` method, you ensure that equal edges produce the same hash code value, which is necessary when using objects in hash-based data structures like hash sets or hash maps.
+    The combination is computed inline, giving the value `Objects.hash(source, target, weight)` returns without allocating the varargs array on every edge set probe.
 
     @return The hash code value.
   */
 
   @Override
   public int hashCode() {
-    return Objects.hash(source, target, weight);
+    return 31 * (31 * (31 + source.hashCode()) + target.hashCode()) + Objects.hashCode(weight);
   }
 
   /**
@@ -0,0 +1,17 @@
+package graph;
+
+@FunctionalInterface
+public interface EdgeConsumer<T> {
+  /**
+    Receives one edge produced by an algorithm (e.g. an edge accepted into a Minimum Spanning Tree).
+
+    Desc: Algorithms that accept an `EdgeConsumer` hand their edges over as soon as they are produced, instead of collecting them into a `Set` of `Edge` objects,
+    so a consumer can stream them to a file or aggregate them without keeping the whole result in memory.
+
+    @param source The data value of the source vertex.
+    @param target The data value of the target vertex.
+    @param weight The weight of the edge, null if the graph is unweighted.
+  */
+
+  void accept(T source, T target, Integer weight);
+}
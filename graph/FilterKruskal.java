@@ -0,0 +1,276 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public abstract class FilterKruskal {
+  private final static int BASE_CASE = 1 << 12; // Segments up to this size are sorted and swept directly.
+  private final static int CHUNK = 1 << 14; // Minimum number of keys handled by one partitioning task.
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using the Filter-Kruskal algorithm on the common fork-join pool.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and delegates to `MST(CSRGraph, ForkJoinPool)` with `ForkJoinPool.commonPool()`,
+    so the parallelism is the one configured for the common pool.
+
+    @param graph The graph for which to compute the MST.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+  */
+
+  public static <T> Set<Edge<T>> MST(Graph<T> graph){
+    return MST(graph.freeze(), ForkJoinPool.commonPool());
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using the Filter-Kruskal algorithm with the given parallelism.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and runs the algorithm on a dedicated `ForkJoinPool` of `parallelism` workers,
+    which is shut down before returning. A parallelism of 1 runs every step on a single worker.
+
+    @param graph The graph for which to compute the MST.
+    @param parallelism The number of worker threads used to partition and filter the edges.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+    @throws IllegalArgumentException if `parallelism` is not positive.
+  */
+
+  public static <T> Set<Edge<T>> MST(Graph<T> graph, int parallelism){
+    return MST(graph.freeze(), parallelism);
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a frozen graph using the Filter-Kruskal algorithm with the given parallelism.
+
+    @param graph The frozen graph for which to compute the MST.
+    @param parallelism The number of worker threads used to partition and filter the edges.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+    @throws IllegalArgumentException if `parallelism` is not positive.
+  */
+
+  public static <T> Set<Edge<T>> MST(CSRGraph<T> graph, int parallelism){
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return MST(graph, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a frozen graph using the Filter-Kruskal algorithm on the given pool.
+
+    Desc: Filter-Kruskal avoids sorting every edge up front. Each edge is packed into a `long` key holding its weight in the high half and its index in the low half,
+    so keys are unique and ordered by weight first, which makes the result deterministic and identical to a sequential Kruskal sweep over the same order, whatever the parallelism.
+    The algorithm then works recursively on a segment of keys:
+      - Small segments are sorted and swept with a union-find, exactly like `Kruskal.MST`.
+      - Larger segments are partitioned around a pivot key (in parallel on the `pool`), the lighter half is solved first,
+        then the heavier half is filtered in parallel, discarding every edge whose endpoints were already joined, and only the survivors are solved.
+    The recursion stops as soon as |V| - 1 edges have been accepted, so on dense graphs most heavy edges are never sorted at all.
+    Self-loops are ignored. For undirected graphs each edge is reported once, oriented from the row in which it is stored in the `CSRGraph`,
+    so its orientation may differ from the one it was put with.
+
+    The expected time complexity is O(|E| + |V| log |V| log (|E| / |V|)) for random weights.
+
+    @param graph The frozen graph for which to compute the MST.
+    @param pool The pool that runs the partitioning and filtering tasks.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+  */
+
+  public static <T> Set<Edge<T>> MST(CSRGraph<T> graph, ForkJoinPool pool){
+    Set<Edge<T>> tree = new LinkedHashSet<>();
+    MST(graph, pool, (source, target, weight) -> tree.add(new Edge<T>(new Vertex<T>(source), new Vertex<T>(target), weight, graph.isDirected())));
+    return tree;
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a frozen graph using the Filter-Kruskal algorithm on the given pool, streaming its edges to a consumer.
+
+    Desc: This method runs the same algorithm as `MST(CSRGraph, ForkJoinPool)`, but hands each accepted edge to the `consumer` as soon as it is accepted,
+    in ascending weight order, instead of collecting the edges into a set. The consumer is always called from the calling thread.
+
+    @param graph The frozen graph for which to compute the MST.
+    @param pool The pool that runs the partitioning and filtering tasks.
+    @param consumer The consumer receiving the edges of the Minimum Spanning Tree (or forest).
+  */
+
+  public static <T> void MST(CSRGraph<T> graph, ForkJoinPool pool, EdgeConsumer<T> consumer){
+    int[] sources = new int[graph.arcCount()];
+    int[] arcs = new int[graph.arcCount()];
+    int m = graph.edgeArcs(sources, arcs);
+
+    long[] keys = new long[m];
+    for(int e = 0; e < m; e++)
+      keys[e] = ((long) graph.weight(arcs[e]) << 32) | e;
+
+    Sweep<T> sweep = new Sweep<>(graph, sources, arcs, pool, consumer);
+    sweep.solve(keys, new long[m], 0, m);
+  }
+
+  /**
+    State shared by the recursive steps of one Filter-Kruskal run.
+  */
+
+  private static class Sweep<T> {
+    private final CSRGraph<T> graph; // the frozen input graph
+    private final int[] sources; // source vertex id of each edge
+    private final int[] arcs; // arc index of each edge
+    private final int[] parent; // union-find parent of each vertex
+    private final byte[] rank; // union-find rank of each root
+    private final ForkJoinPool pool; // runs the partitioning and filtering tasks
+    private final EdgeConsumer<T> consumer; // receives the accepted edges
+    private int remaining; // number of edges still needed to span every vertex
+
+    Sweep(CSRGraph<T> graph, int[] sources, int[] arcs, ForkJoinPool pool, EdgeConsumer<T> consumer){
+      this.graph = graph;
+      this.consumer = consumer;
+      this.sources = sources;
+      this.arcs = arcs;
+      this.pool = pool;
+      this.parent = new int[graph.vertexCount()];
+      this.rank = new byte[graph.vertexCount()];
+      for(int v = 0; v < this.parent.length; v++) this.parent[v] = v;
+      this.remaining = graph.vertexCount() - 1;
+    }
+
+    /**
+      Solves the segment [lo, hi) of `keys`, using the same range of `buffer` as scratch space.
+    */
+
+    void solve(long[] keys, long[] buffer, int lo, int hi){
+      if(this.remaining <= 0 || lo >= hi) return;
+      if(hi - lo <= BASE_CASE){
+        Arrays.sort(keys, lo, hi);
+        for(int i = lo; i < hi && this.remaining > 0; i++) accept(keys[i]);
+        return;
+      }
+      long pivot = median(keys[lo], keys[lo + (hi - lo) / 2], keys[hi - 1]);
+      int mid = lo + this.pool.invoke(new Partition(keys, buffer, lo, hi, pivot, null, this.pool.getParallelism()));
+      solve(keys, buffer, lo, mid);
+      if(this.remaining <= 0) return;
+      int end = mid + this.pool.invoke(new Partition(keys, buffer, mid, hi, 0, this, this.pool.getParallelism()));
+      solve(keys, buffer, mid, end);
+    }
+
+    /**
+      Joins the endpoints of the edge packed in `key` if they belong to different trees.
+    */
+
+    private void accept(long key){
+      int e = (int) key;
+      int u = find(this.sources[e]), v = find(this.graph.target(this.arcs[e]));
+      if(u == v) return;
+      if(this.rank[u] < this.rank[v]) this.parent[u] = v;
+      else if(this.rank[u] > this.rank[v]) this.parent[v] = u;
+      else {
+        this.parent[v] = u;
+        this.rank[u]++;
+      }
+      int a = this.arcs[e];
+      this.consumer.accept(this.graph.dataOf(this.sources[e]), this.graph.dataOf(this.graph.target(a)),
+        this.graph.isWeighted() ? Integer.valueOf(this.graph.weight(a)) : null);
+      this.remaining--;
+    }
+
+    /**
+      Tells whether the endpoints of the edge packed in `key` are already in the same tree.
+      It does not compress paths, so it is safe to call from several filtering tasks at once.
+    */
+
+    boolean connected(long key){
+      int e = (int) key;
+      return root(this.sources[e]) == root(this.graph.target(this.arcs[e]));
+    }
+
+    private int root(int v){
+      while(this.parent[v] != v) v = this.parent[v];
+      return v;
+    }
+
+    private int find(int v){
+      while(this.parent[v] != v){
+        this.parent[v] = this.parent[this.parent[v]];
+        v = this.parent[v];
+      }
+      return v;
+    }
+
+    private static long median(long a, long b, long c){
+      return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+  }
+
+  /**
+    Stable parallel partition of a key segment.
+
+    Desc: Without a `filter`, the keys lower than or equal to `pivot` are moved to the front of the segment and the rest after them.
+    With a `filter`, the keys of edges whose endpoints are already connected are dropped and the survivors are compacted at the front.
+    The segment is split into chunks, each chunk counts its keys, a prefix sum gives every chunk its destination,
+    and the chunks are scattered into `buffer` and copied back in parallel. The task returns the size of the front part.
+  */
+
+  private static class Partition extends RecursiveTask<Integer> {
+    private final static long serialVersionUID = 1L; // ForkJoinTask is Serializable, the task is never serialized but declares its version
+    private final long[] keys, buffer; // the keys and the scratch space
+    private final int lo, hi; // the segment bounds
+    private final long pivot; // the partitioning key, unused when filtering
+    private final Sweep<?> filter; // the running sweep when filtering, null when partitioning
+    private final int parallelism; // parallelism of the pool running the task
+
+    Partition(long[] keys, long[] buffer, int lo, int hi, long pivot, Sweep<?> filter, int parallelism){
+      this.parallelism = parallelism;
+      this.keys = keys;
+      this.buffer = buffer;
+      this.lo = lo;
+      this.hi = hi;
+      this.pivot = pivot;
+      this.filter = filter;
+    }
+
+    private boolean front(long key){
+      return this.filter == null ? key <= this.pivot : !this.filter.connected(key);
+    }
+
+    @Override
+    protected Integer compute(){
+      int chunks = Math.max(1, Math.min(this.parallelism * 4, (this.hi - this.lo) / CHUNK));
+      int size = (this.hi - this.lo + chunks - 1) / chunks;
+      int[] counts = new int[chunks + 1];
+      ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[chunks];
+      for(int c = 0; c < chunks; c++){
+        int from = this.lo + c * size, to = Math.min(this.hi, from + size), slot = c + 1;
+        tasks[c] = ForkJoinTask.adapt(() -> {
+          int count = 0;
+          for(int i = from; i < to; i++) if(front(this.keys[i])) count++;
+          counts[slot] = count;
+        });
+      }
+      invokeAll(tasks);
+
+      int[] sizes = new int[chunks];
+      for(int c = 0; c < chunks; c++){
+        sizes[c] = Math.max(0, Math.min(this.hi, this.lo + (c + 1) * size) - (this.lo + c * size));
+        counts[c + 1] += counts[c];
+      }
+      int total = counts[chunks];
+      for(int c = 0; c < chunks; c++){
+        int from = this.lo + c * size, to = from + sizes[c];
+        int frontAt = this.lo + counts[c], backAt = this.lo + total + (from - this.lo) - counts[c];
+        tasks[c] = ForkJoinTask.adapt(() -> {
+          int f = frontAt, b = backAt;
+          for(int i = from; i < to; i++){
+            long key = this.keys[i];
+            if(front(key)) this.buffer[f++] = key;
+            else if(this.filter == null) this.buffer[b++] = key;
+          }
+        });
+      }
+      invokeAll(tasks);
+      int copied = this.filter == null ? this.hi - this.lo : total;
+      System.arraycopy(this.buffer, this.lo, this.keys, this.lo, copied);
+      return total;
+    }
+  }
+}
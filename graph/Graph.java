@@ -1,14 +1,24 @@
 package graph;
+import java.io.File;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import files.EdgeSink;
 import files.FileManipulation;
 
 public class Graph<T> {
   private boolean directed;  // indicates whether the graph is directed or undirected.
   private boolean weighted;  // indicates whether the graph is weighted or unweighted.
-  private Set<Vertex<T>> vertices; // The set of vertices in the graph.
+  private VertexDictionary<T> dictionary; // The vertices in the graph, interned by data value with a dense id.
   private Set<Edge<T>> edges; // The set of edges in the graph.
+  private List<Set<Edge<T>>> outgoing; // The edges leaving each vertex, indexed by vertex id.
+  private List<Set<Edge<T>>> incoming; // The edges arriving at each vertex, indexed by vertex id.
+  private List<GraphListener<T>> listeners; // The structures kept up to date with the edges of the graph (e.g. `DynamicMST`).
 
   /**
     Constructs a graph by loading the graph edges data from a file and with specified properties.
@@ -20,7 +30,7 @@ public class Graph<T> {
     The `directed` parameter determines whether the graph is directed or undirected. 
     If `directed` is set to `true`, the graph is directed; otherwise, it is undirected. 
     The `weighted` parameter specifies whether the edges in the graph are weighted or not.
-    The constructor initializes the vertex set and edge set as empty `HashSet`. 
+    The constructor initializes an empty `VertexDictionary`, which interns every vertex with a dense id, the edge set as an empty `HashSet`, and the outgoing and incoming adjacency indexes as empty lists indexed by vertex id. 
     If a valid file path is provided (`path != null`), it reads the graph data from the file using the `readAdjacentMatrix` method.
 
 
@@ -32,8 +42,11 @@ public class Graph<T> {
   public Graph(String path, boolean directed, boolean weighted){
     this.directed = directed;
     this.weighted = weighted;
-    this.vertices = new HashSet<>();
+    this.dictionary = new VertexDictionary<>();
     this.edges = new HashSet<>();
+    this.outgoing = new ArrayList<>();
+    this.incoming = new ArrayList<>();
+    this.listeners = new ArrayList<>();
     if(path != null) this.readAdjacentMatrix(path);
   }
 
@@ -92,22 +105,29 @@ public class Graph<T> {
     Adds a vertex to the graph with the specified data value.
 
     Desc: This function adds a new vertex to the graph with the specified data value. 
-    It creates a new vertex object using the given data value and adds it to the graph's set of vertices.
+    If the data value is new, it is interned by the graph's `VertexDictionary` into a vertex object holding a dense id, the only vertex object of that data value in the graph.
+    Empty outgoing and incoming adjacency entries are registered at the id of the vertex.
 
     @param data The data value of the vertex to be added.
   */
 
   public void addVertex(T data){
-    this.vertices.add(new Vertex<T>(data));
+    Vertex<T> v = this.dictionary.add(data);
+    if(v != null){
+      place(this.outgoing, v.id, new HashSet<>());
+      place(this.incoming, v.id, new HashSet<>());
+    }
   }
 
   /**
     Removes a vertex from the graph by its data value.
 
     Desc: This function removes a vertex from a graph based on its data value. 
-    It creates a new vertex object with the given data value and checks if 
-    it exists in the graph's set of vertices. 
-    If the vertex is found, it is removed from the graph. 
+    It looks the vertex up in the graph's `VertexDictionary`, without allocating a vertex object. 
+    If the vertex is found, it is removed from the graph together with every edge incident to it, 
+    which are located through the outgoing and incoming adjacency indexes in O(degree) and also unregistered from the indexes of their other endpoint. 
+    The id of the vertex is released, to be reused by the next vertex added.
+    Every removed edge, and then the vertex, is reported to the listeners of the graph.
     If the vertex is not found, a `NoSuchElementException` is thrown to indicate that the vertex was not found in the graph.
 
     @param data The data value of the vertex to be removed.
@@ -115,8 +135,20 @@ public class Graph<T> {
   */
 
   public void removeVertex(T data){
-    Vertex<T> v = new Vertex<T>(data);
-    if(this.vertices.contains(v)) this.vertices.remove(v);
+    Vertex<T> v = this.dictionary.get(data);
+    if(v != null){
+      for(Edge<T> e : this.outgoing.set(v.id, null)){
+        if(this.edges.remove(e)) this.listeners.forEach(l -> l.edgeRemoved(e));
+        this.incoming.get(e.getTarget().id).remove(e);
+      }
+      for(Edge<T> e : this.incoming.set(v.id, null)){
+        if(this.edges.remove(e)) this.listeners.forEach(l -> l.edgeRemoved(e));
+        Set<Edge<T>> out = this.outgoing.get(e.getSource().id);
+        if(out != null) out.remove(e);
+      }
+      this.dictionary.remove(v);
+      this.listeners.forEach(l -> l.vertexRemoved(v));
+    }
     else throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", data));
   }
 
@@ -125,8 +157,10 @@ public class Graph<T> {
 
     Desc: This method adds an edge to the graph between two vertices with an optional weight. 
     If the graph is not weighted (`this.weighted` is `false`), the provided weight is not considered, and a message is printed to inform that the weight was not used.
-    It creates two `Vertex` objects using the given `vData` and `uData`. If both vertices exist in the graph's vertex set, a new `Edge` object is created with the vertices and the specified weight (or `null` if the graph is not weighted). 
-    The edge is then added to the graph's edge set.
+    It looks up the interned vertices of `vData` and `uData` in the graph's `VertexDictionary`. If both vertices exist, a new `Edge` object is created with these vertices and the specified weight (or `null` if the graph is not weighted), 
+    so every edge of a vertex shares the same vertex object and no vertex is allocated. 
+    The edge is then added to the graph's edge set, and registered in the outgoing index of `vData` and in the incoming index of `uData`, at the ids of the vertices.
+    If the edge is new, it is also reported to the listeners of the graph.
     If either of the vertices is not found in the graph, a `NoSuchElementException` is thrown with a message indicating that either `vData` or `uData` (or both) were not found in the graph.
     If the `this.directed` is set to `true`, then the direction of this new edge is vData to uData
 
@@ -144,18 +178,33 @@ public class Graph<T> {
       newWeight = null;
     }
 
-    Vertex<T> v = new Vertex<T>(vData), u = new Vertex<T>(uData);
-    if(this.vertices.contains(v) && this.vertices.contains(u))
-      this.edges.add(new Edge<T>(v, u, newWeight, this.directed));
+    Vertex<T> v = this.dictionary.get(vData), u = this.dictionary.get(uData);
+    if(v != null && u != null) putEdge(v, u, newWeight);
     else throw new NoSuchElementException(String.format("Neither %s or %s was found.", vData, uData));
   }
 
+  /**
+    Adds an edge between two interned vertices of the graph, the weight being already checked.
+  */
+
+  private void putEdge(Vertex<T> v, Vertex<T> u, Integer weight){
+    if(Metrics.ENABLED) Metrics.PUT_EDGE_CALLS.increment();
+    Edge<T> e = new Edge<T>(v, u, weight, this.directed);
+    if(this.edges.add(e)){
+      if(Metrics.ENABLED) Metrics.EDGES_ADDED.increment();
+      this.outgoing.get(v.id).add(e);
+      this.incoming.get(u.id).add(e);
+      this.listeners.forEach(l -> l.edgeAdded(e));
+    }
+  }
+
   /**
     Removes an edge from the graph between two vertices with the specified weight.
 
     Desc: This method removes an edge from the graph between two vertices with the specified weight. 
-    It creates `Vertex` objects using the given `vData` and `uData`, and an `Edge` object using those vertices and the provided weight.
-    If both vertices and the edge are found in the graph's vertex set and edge set, respectively, the edge is removed from the graph's edge set using the `remove` method. 
+    It looks up the interned vertices of `vData` and `uData`, and creates an `Edge` object using those vertices and the provided weight.
+    If both vertices and the edge are found in the graph's `VertexDictionary` and edge set, respectively, the edge is removed from the graph's edge set using the `remove` method, and from the outgoing and incoming indexes of its endpoints. 
+    The removal is then reported to the listeners of the graph.
     If the edge is not found in the graph, a `NoSuchElementException` is thrown with a message indicating that the edge was not found.
 
     @param vData The data value of the first vertex.
@@ -165,11 +214,14 @@ public class Graph<T> {
   */
 
   public void removeEdge(T vData, T uData, Integer weight){
-    Vertex<T> v = new Vertex<T>(vData), u = new Vertex<T>(uData);
-    Edge<T> e = new Edge<T>(v, u, weight, this.directed);
-    if(this.vertices.contains(v) && this.vertices.contains(u) && this.edges.contains(e))
-      this.edges.remove(e);
-    else throw new NoSuchElementException(String.format("Edge %s was not found.", e.toString()));
+    Vertex<T> v = this.dictionary.get(vData), u = this.dictionary.get(uData);
+    Edge<T> e = v != null && u != null ? new Edge<T>(v, u, weight, this.directed) : null;
+    if(e != null && this.edges.remove(e)){
+      this.outgoing.get(v.id).remove(e);
+      this.incoming.get(u.id).remove(e);
+      this.listeners.forEach(l -> l.edgeRemoved(e));
+    }
+    else throw new NoSuchElementException(String.format("Edge %s was not found.", new Edge<T>(new Vertex<T>(vData), new Vertex<T>(uData), weight, this.directed).toString()));
   }
 
   /**
@@ -208,37 +260,89 @@ public class Graph<T> {
     Retrieves the neighborhood vertices of a given source vertex.
 
     Desc: This method retrieves the neighborhood vertices of a given source vertex. 
-    It creates a `Vertex` object using the `source` parameter and initializes an empty `HashSet` called `neighborhood` to store the neighborhood vertices.
-    The method iterates over each edge in the graph's edge set using the `forEach` method. If the source vertex of an edge matches the given source vertex `v`, it means the target vertex of that edge is in the neighborhood. In that case, the target vertex is added to the `neighborhood` set.
-    Additionally, if the graph is undirected (`this.directed` is `false`), it checks if the target vertex of an edge matches the given source vertex `v`. In this case, and only in an undirected graph, the source vertex of that edge is added to the `neighborhood` set.
-    Finally, the method returns the `neighborhood` set, which contains all the neighboring vertices of the given source vertex.
+    It copies the vertices produced by `neighbors(source)` into a new `HashSet` called `neighborhood`, so the returned set can be freely modified by the caller.
+    The targets of the edges leaving the source vertex are in the neighborhood, and if the graph is undirected (`this.directed` is `false`) the sources of the edges arriving at it are too.
+    Since the edges are looked up in the adjacency indexes, the cost is O(degree) instead of a scan over every edge of the graph.
+    Callers that only need to iterate should prefer `neighbors`, which does not allocate a set.
 
     @param source The data value of the source vertex.
     @return A set of vertices representing the neighborhood of the source vertex.
   */
 
   public Set<Vertex<T>> getNeighborhood(T source){
-    Vertex<T> v = new Vertex<T>(source);
     Set<Vertex<T>> neighborhood = new HashSet<>();
-    this.edges.forEach(edge -> {
-      if(edge.getSource().equals(v)) neighborhood.add(edge.getTarget());
-      else if (edge.getTarget().equals(v) && !this.directed) neighborhood.add(edge.getSource());
-    });
+    for(Vertex<T> u : this.neighbors(source)) neighborhood.add(u);
     return neighborhood;
   }
 
+  /**
+    Iterates over the neighborhood vertices of a given source vertex.
+
+    Desc: This method returns a view over the adjacency indexes of the source vertex, no set is allocated to hold the neighborhood.
+    The iterator first walks the targets of the edges leaving the source vertex and then, only in an undirected graph, the sources of the edges arriving at it.
+    A vertex connected by more than one edge (e.g. both {v, u} and {u, v} in an undirected graph) is produced once per edge.
+    If the source vertex is not in the graph, the view is empty.
+    The graph must not be modified while the view is being iterated.
+
+    @param source The data value of the source vertex.
+    @return An iterable over the vertices adjacent to the source vertex.
+  */
+
+  public Iterable<Vertex<T>> neighbors(T source){
+    Vertex<T> v = this.dictionary.get(source);
+    if(v == null) return Collections.emptySet();
+    Set<Edge<T>> out = this.outgoing.get(v.id);
+    Set<Edge<T>> in = this.directed ? Collections.emptySet() : this.incoming.get(v.id);
+    return () -> new NeighborIterator<>(out.iterator(), in.iterator());
+  }
+
+  /**
+    Returns the edges leaving the given vertex.
+
+    Desc: This method returns an unmodifiable view of the outgoing adjacency index of the vertex.
+    In an undirected graph the edges are still split by the direction in which they were put, see `getIncomingEdges` for the remaining ones.
+
+    @param source The data value of the vertex.
+    @return The edges whose source is the vertex.
+    @throws NoSuchElementException if the vertex is not found.
+  */
+
+  public Set<Edge<T>> getOutgoingEdges(T source){
+    Vertex<T> v = this.dictionary.get(source);
+    if(v == null) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", source));
+    return Collections.unmodifiableSet(this.outgoing.get(v.id));
+  }
+
+  /**
+    Returns the edges arriving at the given vertex.
+
+    Desc: This method returns an unmodifiable view of the incoming adjacency index of the vertex.
+
+    @param target The data value of the vertex.
+    @return The edges whose target is the vertex.
+    @throws NoSuchElementException if the vertex is not found.
+  */
+
+  public Set<Edge<T>> getIncomingEdges(T target){
+    Vertex<T> v = this.dictionary.get(target);
+    if(v == null) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", target));
+    return Collections.unmodifiableSet(this.incoming.get(v.id));
+  }
+
   /**
     Reads an adjacency matrix from a file and updates the graph based on its contents.
 
     Desc: This method reads an adjacency matrix from a file and updates the graph based on its contents. 
     It takes the `path` parameter specifying the path to the file containing the adjacency matrix.
-    The method begins by clearing the existing vertices and edges in the graph, if any. 
-    Then, it reads the adjacency matrix from the file and converts it into a 2D array using the `turnInto2DArray` method from the `FileManipulation` class. The `initializeGraph` method is called to set up the initial graph structure based on the size of the adjacency matrix.
-    Next, it iterates over each element of the adjacency matrix using two nested `for` loops. 
-    If an element in the matrix is non-zero, it indicates the presence of an edge between the corresponding vertices. 
+    The method begins by clearing the existing vertices, edges and adjacency indexes in the graph, if any, and reports it to the listeners of the graph. 
+    Then, it streams the adjacency matrix from the file using the `streamAdjacentMatrix` method from the `FileManipulation` class, which memory-maps the file and parses it without materialising the matrix. 
+    Once the size of the matrix is known, the `initializeGraph` method is called to set up the initial graph structure.
+    Next, every non-zero element of the adjacency matrix is received as an edge between the corresponding vertices, in row-major order. 
     The `putEdge` method is called to add the edge to the graph, with the appropriate vertices and weight.
+    Since the dictionary was cleared, vertex `i` holds the id `i`, so a weighted graph takes its vertices straight from their id without hashing nor boxing their data.
+    Once the file is read, the bytes and edges parsed are added to the `Metrics` counters (when enabled) and reported in a `graph.ReadAdjacentMatrix` JFR event (when recorded).
 
-    Note: The casting `(T) Integer.valueOf(i)` and `(T) Integer.valueOf(j)` is used to convert the indices `i` and `j` to the generic type `T`. Similarly, `(Integer) adjMatrix[i][j]` is used to cast the weight to `Integer`.
+    Note: The casting `(T) Integer.valueOf(source)` and `(T) Integer.valueOf(target)` is used to convert the indices to the generic type `T`.
     The `@SuppressWarnings("unchecked")` annotation is used to suppress unchecked warnings related to these castings.
 
     @param path The path to the file containing the adjacency matrix.
@@ -246,15 +350,39 @@ public class Graph<T> {
 
   @SuppressWarnings("unchecked")
   public void readAdjacentMatrix(String path){
-    if(!this.vertices.isEmpty()) this.vertices.clear();
+    this.dictionary.clear();
     if(!this.edges.isEmpty()) this.edges.clear();
-    T[][] adjMatrix = FileManipulation.turnInto2DArray(FileManipulation.readFile(path));
-    initializeGraph(adjMatrix);
-    int n = adjMatrix.length;
-    for(int i = 0; i < n; i++)
-      for(int j = 0; j < n; j++)
-        if(!adjMatrix[i][j].equals(0)) 
-          this.putEdge((T) Integer.valueOf(i), (T) Integer.valueOf(j), (Integer) adjMatrix[i][j]);
+    this.outgoing.clear();
+    this.incoming.clear();
+    this.listeners.forEach(l -> l.cleared());
+    MatrixReadEvent event = new MatrixReadEvent();
+    event.begin();
+    long[] parsed = new long[1];
+    boolean read = FileManipulation.streamAdjacentMatrix(path, new EdgeSink() {
+      public void begin(int vertices){
+        initializeGraph(vertices);
+      }
+
+      public void edge(int source, int target, int weight){
+        parsed[0]++;
+        if(!weighted) putEdge((T) Integer.valueOf(source), (T) Integer.valueOf(target), weight);
+        else putEdge(dictionary.vertex(source), dictionary.vertex(target), weight);
+      }
+    });
+    if(!read) return;
+    long bytes = new File(path).length();
+    if(Metrics.ENABLED){
+      Metrics.MATRIX_BYTES.add(bytes);
+      Metrics.MATRIX_EDGES.add(parsed[0]);
+    }
+    event.end();
+    if(event.shouldCommit()){
+      event.path = path;
+      event.bytes = bytes;
+      event.vertices = this.dictionary.size();
+      event.edges = parsed[0];
+      event.commit();
+    }
   }
 
   /**
@@ -264,17 +392,25 @@ public class Graph<T> {
     It takes the `adjMatrix` parameter, which is a 2D array representing the adjacency matrix of the graph.
     The method starts by retrieving the size of the adjacency matrix, which represents the number of vertices in the graph.
     Next, it iterates over the indices from 0 to `n-1` (where `n` is the size of the adjacency matrix). 
-    For each index, it adds a vertex to the graph using the `addVertex` method, with the index value converted to the generic type `T` using `(T) Integer.valueOf(i)`.
-
-    Note: The casting `(T) Integer.valueOf(i)` is used to convert the index `i` to the generic type `T`.
-    The `@SuppressWarnings("unchecked")` annotation is used to suppress unchecked warnings related to this casting.
+    For each index, it adds a vertex to the graph by calling `initializeGraph(n)`.
 
     @param adjMatrix The adjacency matrix representing the graph.
   */
 
-  @SuppressWarnings("unchecked")
   public void initializeGraph(T[][] adjMatrix){
-    int n = adjMatrix.length;
+    initializeGraph(adjMatrix.length);
+  }
+
+  /**
+    Initializes the graph with the given number of vertices.
+
+    Desc: This method adds the vertices 0 to `n-1` to the graph using the `addVertex` method, with each index value converted to the generic type `T` using `(T) Integer.valueOf(i)`.
+
+    @param n The number of vertices.
+  */
+
+  @SuppressWarnings("unchecked")
+  public void initializeGraph(int n){
     for(int i = 0; i < n; i++){
       this.addVertex((T) Integer.valueOf(i));
     }
@@ -283,14 +419,46 @@ public class Graph<T> {
   /**
     Retrieves the set of vertices in the graph.
 
-    Desc: This method returns the set of vertices in the graph. 
-    It simply returns the `vertices` set, which contains all the vertices of the graph.
+    Desc: This method returns a read-only view of the vertices interned by the graph's `VertexDictionary`, iterated by ascending id.
+    Membership is checked by looking the data value up in the dictionary.
 
     @return A set of vertices in the graph.
   */
 
   public Set<Vertex<T>> getVertices() {
-    return vertices;
+    VertexDictionary<T> dictionary = this.dictionary;
+    return new AbstractSet<Vertex<T>>() {
+      public Iterator<Vertex<T>> iterator(){
+        return new Iterator<Vertex<T>>() {
+          private int id = advance(0); // id of the next vertex, `dictionary.bound()` once every vertex was produced
+
+          public boolean hasNext(){
+            return this.id < dictionary.bound();
+          }
+
+          public Vertex<T> next(){
+            if(!hasNext()) throw new NoSuchElementException();
+            Vertex<T> v = dictionary.vertex(this.id);
+            this.id = advance(this.id + 1);
+            return v;
+          }
+
+          private int advance(int id){
+            while(id < dictionary.bound() && dictionary.vertex(id) == null) id++;
+            return id;
+          }
+        };
+      }
+
+      public int size(){
+        return dictionary.size();
+      }
+
+      public boolean contains(Object o){
+        if(!(o instanceof Vertex)) return false;
+        return dictionary.get(((Vertex<?>) o).getData()) != null;
+      }
+    };
   }
 
   /**
@@ -306,6 +474,63 @@ public class Graph<T> {
     return edges;
   }
 
+  /**
+    Registers a listener notified of every change of the edges of the graph.
+
+    Desc: The listener is called synchronously by `putEdge`, `removeEdge`, `removeVertex` and `readAdjacentMatrix`, after the graph has been updated.
+    Only the edges added or removed after the registration are reported, the listener is expected to read the current edges itself.
+
+    @param listener The listener to register.
+  */
+
+  void addListener(GraphListener<T> listener) {
+    this.listeners.add(listener);
+  }
+
+  /**
+    Unregisters a listener registered with `addListener`.
+
+    @param listener The listener to unregister.
+  */
+
+  void removeListener(GraphListener<T> listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+    Returns whether the graph is directed.
+
+    @return true if the graph is directed, false otherwise.
+  */
+
+  public boolean isDirected() {
+    return directed;
+  }
+
+  /**
+    Returns whether the graph is weighted.
+
+    @return true if the graph is weighted, false otherwise.
+  */
+
+  public boolean isWeighted() {
+    return weighted;
+  }
+
+  /**
+    Freezes the graph into an immutable compressed sparse row representation.
+
+    Desc: This method maps every vertex to a dense int id and copies the edges into primitive arrays (row offsets, targets and weights) by calling `CSRGraph.freeze`.
+    The frozen graph uses a fraction of the memory of the vertex and edge sets and its neighbor walks are sequential array scans, which makes it the preferred input for traversal algorithms on large graphs.
+    Later changes to this graph are not reflected on the frozen copy.
+
+    @return The compressed sparse row representation of the graph.
+  */
+
+  public CSRGraph<T> freeze() {
+    return CSRGraph.freeze(this);
+  }
+
   /**
     Returns a string representation of the graph's settings.
 
@@ -342,6 +567,43 @@ public class Graph<T> {
 
   @Override
   public String toString() {
-    return String.format("Graph G %s such as G = (V, E): \n(V = %s,\n E = %s)", this.graphSettings(), this.vertices, this.edges);
+    return String.format("Graph G %s such as G = (V, E): \n(V = %s,\n E = %s)", this.graphSettings(), this.getVertices(), this.edges);
+  }
+
+  /**
+    Stores the adjacency set of a vertex at its id, growing the list when the id is new.
+  */
+
+  private static <E> void place(List<Set<E>> index, int id, Set<E> adjacency){
+    if(id == index.size()) index.add(adjacency);
+    else index.set(id, adjacency);
+  }
+
+  /**
+    Iterator over the opposite endpoints of a vertex's outgoing and incoming edges.
+
+    Desc: This iterator yields the target of each outgoing edge and then the source of each incoming edge, 
+    it backs the allocation free `neighbors` view.
+  */
+
+  private static class NeighborIterator<T> implements Iterator<Vertex<T>> {
+    private final Iterator<Edge<T>> out; // edges leaving the vertex
+    private final Iterator<Edge<T>> in; // edges arriving at the vertex
+
+    NeighborIterator(Iterator<Edge<T>> out, Iterator<Edge<T>> in){
+      this.out = out;
+      this.in = in;
+    }
+
+    @Override
+    public boolean hasNext(){
+      return this.out.hasNext() || this.in.hasNext();
+    }
+
+    @Override
+    public Vertex<T> next(){
+      if(this.out.hasNext()) return this.out.next().getTarget();
+      return this.in.next().getSource();
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package graph;
+
+interface GraphListener<T> {
+  /**
+    Called after an edge has been added to the graph.
+
+    @param edge The added edge.
+  */
+
+  void edgeAdded(Edge<T> edge);
+
+  /**
+    Called after an edge has been removed from the graph, including the edges removed together with a vertex.
+
+    @param edge The removed edge.
+  */
+
+  void edgeRemoved(Edge<T> edge);
+
+  /**
+    Called after a vertex has been removed from the graph, once every edge incident to it has been reported as removed.
+
+    @param vertex The removed vertex.
+  */
+
+  void vertexRemoved(Vertex<T> vertex);
+
+  /**
+    Called after every vertex and edge of the graph has been dropped at once (e.g. before reading a new adjacency matrix).
+  */
+
+  void cleared();
+}
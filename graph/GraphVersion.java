@@ -0,0 +1,386 @@
+package graph;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import graph.VersionedGraph.Adjacency;
+import graph.VersionedGraph.Chunk;
+
+public class GraphVersion<T> extends Graph<T> implements AutoCloseable {
+  private final VersionedGraph<T> owner; // The graph this version was published by
+  private final long epoch; // The epoch of this version
+  private final Map<Vertex<T>, Integer> ids; // The slot of every vertex of the graph
+  private volatile Chunk<T>[] chunks; // The chunks of this version, dropped once it is reclaimed
+  private final int vertexCount; // The number of vertices of this version
+  private final int edgeCount; // The number of edges of this version
+  private final AtomicInteger readers; // The number of readers that pinned this version, -1 once reclaimed
+
+  /**
+    Constructs an immutable version of a `VersionedGraph`.
+
+    Desc: A version is a `Graph` whose vertex and edge sets are read-only views over the chunks of its epoch, so every algorithm taking a `Graph` (e.g. `Kruskal.MST`) can run on it
+    while the versioned graph keeps being written, without any lock.
+    Every method that would modify the graph throws an `UnsupportedOperationException`.
+
+    @param owner The graph publishing this version.
+    @param epoch The epoch of this version.
+    @param chunks The chunks of this version, never modified afterwards.
+    @param vertexCount The number of vertices of this version.
+    @param edgeCount The number of edges of this version.
+    @param ids The slot of every vertex of the graph.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges in the graph are weighted or not.
+  */
+
+  GraphVersion(VersionedGraph<T> owner, long epoch, Chunk<T>[] chunks, int vertexCount, int edgeCount, Map<Vertex<T>, Integer> ids, boolean directed, boolean weighted){
+    super(directed, weighted);
+    this.owner = owner;
+    this.epoch = epoch;
+    this.chunks = chunks;
+    this.ids = ids;
+    this.vertexCount = vertexCount;
+    this.edgeCount = edgeCount;
+    this.readers = new AtomicInteger();
+  }
+
+  /**
+    Returns the epoch of this version, versions published later have greater epochs.
+
+    @return The epoch of this version.
+  */
+
+  public long getEpoch(){
+    return this.epoch;
+  }
+
+  /**
+    Unpins this version.
+
+    Desc: Once the last reader of a version that is no longer the latest one closes it, the version drops its chunks,
+    so the chunks and adjacencies it did not share with newer versions can be reclaimed even if a stale reference to the version remains.
+    Reading a reclaimed version throws an `IllegalStateException`.
+  */
+
+  @Override
+  public void close(){
+    if(this.readers.decrementAndGet() == 0 && !this.owner.isCurrent(this)) this.reclaim();
+  }
+
+  /**
+    Reclaims this version unless a reader pins it, after which it can no longer be pinned.
+
+    @return true if the version is reclaimed, false if a reader pins it.
+  */
+
+  boolean reclaim(){
+    if(this.readers.get() >= 0 && !this.readers.compareAndSet(0, -1)) return false;
+    this.chunks = null;
+    return true;
+  }
+
+  /**
+    Pins this version for one more reader, unless it has already been reclaimed.
+
+    @return true if the version was pinned, false if it was reclaimed.
+  */
+
+  boolean acquire(){
+    while(true){
+      int r = this.readers.get();
+      if(r < 0) return false;
+      if(this.readers.compareAndSet(r, r + 1)) return true;
+    }
+  }
+
+  /**
+    Retrieves the vertices of this version.
+
+    @return A read-only view of the vertices of this version.
+  */
+
+  @Override
+  public Set<Vertex<T>> getVertices(){
+    Chunk<T>[] chunks = chunks();
+    return new AbstractSet<Vertex<T>>() {
+      public Iterator<Vertex<T>> iterator(){
+        return new SlotIterator<T, Vertex<T>>(chunks) {
+          Vertex<T> item(Adjacency<T> a, int i){
+            return a.vertex;
+          }
+
+          int size(Adjacency<T> a){
+            return 1;
+          }
+        };
+      }
+
+      public int size(){
+        return vertexCount;
+      }
+
+      public boolean contains(Object o){
+        return o instanceof Vertex && adjacency((Vertex<?>) o) != null;
+      }
+    };
+  }
+
+  /**
+    Retrieves the edges of this version.
+
+    @return A read-only view of the edges of this version.
+  */
+
+  @Override
+  public Set<Edge<T>> getEdges(){
+    Chunk<T>[] chunks = chunks();
+    return new AbstractSet<Edge<T>>() {
+      public Iterator<Edge<T>> iterator(){
+        return new SlotIterator<T, Edge<T>>(chunks) {
+          Edge<T> item(Adjacency<T> a, int i){
+            return a.out[i];
+          }
+
+          int size(Adjacency<T> a){
+            return a.outSize;
+          }
+        };
+      }
+
+      public int size(){
+        return edgeCount;
+      }
+
+      public boolean contains(Object o){
+        if(!(o instanceof Edge)) return false;
+        Adjacency<T> a = adjacency(((Edge<?>) o).getSource());
+        return a != null && VersionedGraph.indexOf(a.out, a.outSize, o) >= 0;
+      }
+    };
+  }
+
+  /**
+    Iterates over the neighborhood vertices of a given source vertex in this version.
+
+    @param source The data value of the source vertex.
+    @return An iterable over the vertices adjacent to the source vertex, empty if the vertex is not in this version.
+  */
+
+  @Override
+  public Iterable<Vertex<T>> neighbors(T source){
+    Adjacency<T> a = adjacency(new Vertex<T>(source));
+    if(a == null) return Set.of();
+    int inSize = this.isDirected() ? 0 : a.inSize;
+    return () -> new Iterator<Vertex<T>>() {
+      private int i; // index over the outgoing then the incoming edges
+
+      public boolean hasNext(){
+        return this.i < a.outSize + inSize;
+      }
+
+      public Vertex<T> next(){
+        if(!hasNext()) throw new NoSuchElementException();
+        int k = this.i++;
+        return k < a.outSize ? a.out[k].getTarget() : a.in[k - a.outSize].getSource();
+      }
+    };
+  }
+
+  /**
+    Returns the edges leaving the given vertex in this version.
+
+    @param source The data value of the vertex.
+    @return The edges whose source is the vertex.
+    @throws NoSuchElementException if the vertex is not found.
+  */
+
+  @Override
+  public Set<Edge<T>> getOutgoingEdges(T source){
+    Adjacency<T> a = adjacency(new Vertex<T>(source));
+    if(a == null) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", source));
+    return Set.of(Arrays.copyOf(a.out, a.outSize));
+  }
+
+  /**
+    Returns the edges arriving at the given vertex in this version.
+
+    @param target The data value of the vertex.
+    @return The edges whose target is the vertex.
+    @throws NoSuchElementException if the vertex is not found.
+  */
+
+  @Override
+  public Set<Edge<T>> getIncomingEdges(T target){
+    Adjacency<T> a = adjacency(new Vertex<T>(target));
+    if(a == null) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", target));
+    return Set.of(Arrays.copyOf(a.in, a.inSize));
+  }
+
+  /**
+    Not supported, a version is read-only.
+
+    @throws UnsupportedOperationException always.
+  */
+
+  @Override
+  public void addVertex(T data){
+    throw readOnly();
+  }
+
+  /**
+    Not supported, a version is read-only.
+
+    @throws UnsupportedOperationException always.
+  */
+
+  @Override
+  public void removeVertex(T data){
+    throw readOnly();
+  }
+
+  /**
+    Not supported, a version is read-only.
+
+    @throws UnsupportedOperationException always.
+  */
+
+  @Override
+  public void putEdge(T vData, T uData, Integer weight){
+    throw readOnly();
+  }
+
+  /**
+    Not supported, a version is read-only.
+
+    @throws UnsupportedOperationException always.
+  */
+
+  @Override
+  public void removeEdge(T vData, T uData, Integer weight){
+    throw readOnly();
+  }
+
+  /**
+    Not supported, a version is read-only.
+
+    @throws UnsupportedOperationException always.
+  */
+
+  @Override
+  public void readAdjacentMatrix(String path){
+    throw readOnly();
+  }
+
+  /**
+    Not supported, a version is read-only.
+
+    @throws UnsupportedOperationException always.
+  */
+
+  @Override
+  public void initializeGraph(int n){
+    throw readOnly();
+  }
+
+  /**
+    Returns a string representation of this version.
+
+    @return A string describing the epoch and size of this version.
+  */
+
+  @Override
+  public String toString(){
+    return String.format("GraphVersion %d with |V| = %d and |E| = %d", this.epoch, this.vertexCount, this.edgeCount);
+  }
+
+  /**
+    Returns the chunks of this version.
+
+    @throws IllegalStateException if the version has been reclaimed.
+  */
+
+  private Chunk<T>[] chunks(){
+    Chunk<T>[] chunks = this.chunks;
+    if(chunks == null) throw new IllegalStateException(String.format("GraphVersion %d has been reclaimed", this.epoch));
+    return chunks;
+  }
+
+  /**
+    Returns the adjacency of a vertex in this version, null if the vertex is not in this version.
+  */
+
+  private Adjacency<T> adjacency(Vertex<?> v){
+    Chunk<T>[] chunks = chunks();
+    Integer id = this.ids.get(v);
+    if(id == null || (id >>> VersionedGraph.CHUNK_BITS) >= chunks.length) return null;
+    Chunk<T> chunk = chunks[id >>> VersionedGraph.CHUNK_BITS];
+    return chunk == null ? null : chunk.slots[id & (VersionedGraph.CHUNK_SIZE - 1)];
+  }
+
+  /**
+    Iterator over the items held by the adjacencies of a version, slot by slot.
+
+    Desc: Subclasses tell how many items an adjacency holds and which one is at a given index.
+  */
+
+  private abstract static class SlotIterator<T, I> implements Iterator<I> {
+    private final Chunk<T>[] chunks; // The chunks being walked
+    private int slot = -1; // The slot of the current adjacency
+    private Adjacency<T> adjacency; // The current adjacency
+    private int index; // The index of the next item in the current adjacency
+
+    SlotIterator(Chunk<T>[] chunks){
+      this.chunks = chunks;
+      advance();
+    }
+
+    abstract I item(Adjacency<T> a, int i);
+
+    abstract int size(Adjacency<T> a);
+
+    @Override
+    public boolean hasNext(){
+      return this.adjacency != null;
+    }
+
+    @Override
+    public I next(){
+      if(this.adjacency == null) throw new NoSuchElementException();
+      I item = item(this.adjacency, this.index++);
+      if(this.index >= size(this.adjacency)) advance();
+      return item;
+    }
+
+    /**
+      Moves to the next adjacency holding at least one item.
+    */
+
+    private void advance(){
+      this.index = 0;
+      int end = this.chunks.length << VersionedGraph.CHUNK_BITS;
+      while(++this.slot < end){
+        Chunk<T> chunk = this.chunks[this.slot >>> VersionedGraph.CHUNK_BITS];
+        if(chunk == null){
+          this.slot |= VersionedGraph.CHUNK_SIZE - 1;
+          continue;
+        }
+        Adjacency<T> a = chunk.slots[this.slot & (VersionedGraph.CHUNK_SIZE - 1)];
+        if(a != null && size(a) > 0){
+          this.adjacency = a;
+          return;
+        }
+      }
+      this.adjacency = null;
+    }
+  }
+
+  /**
+    Returns the exception thrown by every method that would modify this version.
+  */
+
+  private UnsupportedOperationException readOnly(){
+    return new UnsupportedOperationException(String.format("GraphVersion %d is read-only", this.epoch));
+  }
+}
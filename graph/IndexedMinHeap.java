@@ -0,0 +1,150 @@
+package graph;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+class IndexedMinHeap {
+  private final int[] heap; // vertex ids laid out as a binary heap
+  private final int[] position; // position of each vertex id in `heap`, -1 when absent
+  private final long[] keys; // current key of each vertex id
+  private int size; // number of ids in the heap
+
+  /**
+    Constructs an empty indexed binary min-heap for the ids 0 to capacity - 1.
+
+    Desc: This heap orders dense int ids by a `long` key, and keeps the position of every id in the heap so that its key can be decreased in O(log n).
+    Every array is allocated once, so inserting, decreasing and polling never allocate.
+
+    @param capacity The number of distinct ids the heap can hold.
+  */
+
+  IndexedMinHeap(int capacity){
+    this.heap = new int[capacity];
+    this.position = new int[capacity];
+    this.keys = new long[capacity];
+    Arrays.fill(this.position, -1);
+  }
+
+  /**
+    Returns whether the heap holds no id.
+
+    @return true if the heap is empty, false otherwise.
+  */
+
+  boolean isEmpty(){
+    return this.size == 0;
+  }
+
+  /**
+    Returns whether the id is currently in the heap.
+
+    @param id The id to look for.
+    @return true if the id is in the heap, false otherwise.
+  */
+
+  boolean contains(int id){
+    return this.position[id] >= 0;
+  }
+
+  /**
+    Returns the last key given to the id.
+
+    @param id The id.
+    @return The key of the id.
+  */
+
+  long key(int id){
+    return this.keys[id];
+  }
+
+  /**
+    Inserts the id with the given key, or lowers its key if it is already in the heap and the new key is smaller.
+
+    @param id The id to insert.
+    @param key The key of the id.
+    @return true if the id was inserted or its key lowered, false otherwise.
+  */
+
+  boolean offer(int id, long key){
+    if(this.position[id] < 0){
+      this.keys[id] = key;
+      this.heap[this.size] = id;
+      this.position[id] = this.size;
+      siftUp(this.size++);
+      return true;
+    }
+    if(key >= this.keys[id]) return false;
+    this.keys[id] = key;
+    siftUp(this.position[id]);
+    return true;
+  }
+
+  /**
+    Returns the id with the smallest key without removing it.
+
+    @return The id with the smallest key.
+    @throws NoSuchElementException if the heap is empty.
+  */
+
+  int peek(){
+    if(this.size == 0) throw new NoSuchElementException("The heap is empty.");
+    return this.heap[0];
+  }
+
+  /**
+    Removes and returns the id with the smallest key, its key stays readable through `key`.
+
+    @return The id with the smallest key.
+    @throws NoSuchElementException if the heap is empty.
+  */
+
+  int poll(){
+    if(this.size == 0) throw new NoSuchElementException("The heap is empty.");
+    int top = this.heap[0];
+    this.position[top] = -1;
+    if(--this.size > 0){
+      this.heap[0] = this.heap[this.size];
+      this.position[this.heap[0]] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  /**
+    Removes every id from the heap, in O(size) so that a heap can be reused by many small searches.
+  */
+
+  void clear(){
+    for(int i = 0; i < this.size; i++) this.position[this.heap[i]] = -1;
+    this.size = 0;
+  }
+
+  private void siftUp(int i){
+    int id = this.heap[i];
+    long key = this.keys[id];
+    while(i > 0){
+      int p = (i - 1) >>> 1;
+      if(this.keys[this.heap[p]] <= key) break;
+      this.heap[i] = this.heap[p];
+      this.position[this.heap[i]] = i;
+      i = p;
+    }
+    this.heap[i] = id;
+    this.position[id] = i;
+  }
+
+  private void siftDown(int i){
+    int id = this.heap[i];
+    long key = this.keys[id];
+    while(true){
+      int c = 2 * i + 1;
+      if(c >= this.size) break;
+      if(c + 1 < this.size && this.keys[this.heap[c + 1]] < this.keys[this.heap[c]]) c++;
+      if(this.keys[this.heap[c]] >= key) break;
+      this.heap[i] = this.heap[c];
+      this.position[this.heap[i]] = i;
+      i = c;
+    }
+    this.heap[i] = id;
+    this.position[id] = i;
+  }
+}
@@ -0,0 +1,73 @@
+package graph;
+
+public class IntDisjointSet {
+    private final int[] parent;
+    private final byte[] rank;
+
+    /**
+      Constructs a new IntDisjointSet object holding the elements 0 to n - 1.
+
+      Desc: This constructor initializes a disjoint set over densely numbered elements, it is the primitive sibling of `DisjointSet`.
+      The `parent` array stores the parent of each element, initially every element is its own parent, representing a disjoint set with only one element.
+      The `rank` array keeps an upper bound of the depth of each root's tree, a `byte` is enough since union by rank keeps the depth below log2(n).
+      Since both are plain arrays, `find` and `union` never allocate nor box.
+
+      @param n The number of elements.
+    */
+
+    public IntDisjointSet(int n) {
+      parent = new int[n];
+      rank = new byte[n];
+      for(int i = 0; i < n; i++) parent[i] = i;
+    }
+
+    /**
+      Finds the representative (root) of the set that the specified element belongs to.
+      Performs path halving during the find operation for optimization.
+
+      Desc: This method walks up the parent links until it reaches an element that is its own parent, which is the representative of the set.
+      While walking, the parent of each visited element is replaced by its grandparent (path halving), which roughly halves the path for future find operations.
+      The walk is iterative, so long chains cannot overflow the stack.
+      The number of links walked is recorded in the `Metrics` histogram "disjointSet.find.pathLength" when metrics are enabled.
+
+      @param element The element to find the representative of.
+      @return The representative (root) of the set.
+    */
+
+    public int find(int element) {
+      int length = 0;
+      while(parent[element] != element) {
+        parent[element] = parent[parent[element]];
+        element = parent[element];
+        length++;
+      }
+      if(Metrics.ENABLED) Metrics.FIND_PATH.record(length);
+      return element;
+    }
+
+    /**
+      Unions the sets that contain the specified elements by merging them based on their ranks.
+
+      Desc: This method finds the roots of both elements, and if they differ attaches the root with the lower rank to the root with the higher rank.
+      If the ranks are equal, the first root is chosen as the parent and its rank is incremented.
+
+      @param element1 The first element.
+      @param element2 The second element.
+      @return true if the sets were merged, false if the elements were already in the same set.
+    */
+
+    public boolean union(int element1, int element2) {
+      int root1 = find(element1);
+      int root2 = find(element2);
+      if(root1 == root2) return false;
+      if(Metrics.ENABLED) Metrics.UNIONS.increment();
+
+      if(rank[root1] < rank[root2]) parent[root1] = root2;
+      else if(rank[root1] > rank[root2]) parent[root2] = root1;
+      else {
+        parent[root2] = root1;
+        rank[root1]++;
+      }
+      return true;
+    }
+}
@@ -0,0 +1,405 @@
+package graph;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import files.EdgeSink;
+import files.FileManipulation;
+
+public class IntGraph {
+  private final static int[] EMPTY = new int[0]; // Row of the vertices without any arc
+
+  private final boolean directed; // indicates whether the graph is directed or undirected.
+  private final boolean weighted; // indicates whether the graph is weighted or unweighted.
+  private int vertexCount; // The number of vertices, their ids are 0 to vertexCount - 1
+  private int edgeCount; // The number of edges
+  private int[][] targets; // The target of each arc of each vertex, the row of a vertex is only filled up to its degree
+  private int[][] weights; // The weight of each arc of each vertex (0 when the graph is unweighted)
+  private int[] degrees; // The number of arcs in the row of each vertex
+
+  /**
+    Constructs a graph of `n` vertices without any edge, specialized for `int` vertices and weights.
+
+    Desc: In practice the graphs read from adjacency matrices are `Graph<Integer>` with int weights, so every vertex and weight of a `Graph` is boxed and every edge is an `Edge` object.
+    This graph holds the vertices 0 to n - 1 as plain ids and the arcs of each vertex in two growing `int` rows (targets and weights), so adding an edge appends two ints to a row and nothing is boxed nor hashed.
+    An undirected edge is stored in the rows of both of its endpoints, except a self-loop which is stored once.
+    Unlike `Graph`, which keeps a set of edges, parallel edges are kept: putting the same edge twice stores it twice.
+    Use `from` and `toGraph` to convert from and to a `Graph`, and `freeze` to run the `CSRGraph` algorithms (e.g. `BFS`, `Dijkstra`, `Boruvka`).
+
+    @param n The number of vertices.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges in the graph are weighted or not.
+  */
+
+  public IntGraph(int n, boolean directed, boolean weighted){
+    this.directed = directed;
+    this.weighted = weighted;
+    this.vertexCount = n;
+    this.targets = new int[Math.max(n, 1)][];
+    this.weights = new int[Math.max(n, 1)][];
+    this.degrees = new int[Math.max(n, 1)];
+    Arrays.fill(this.targets, EMPTY);
+    Arrays.fill(this.weights, EMPTY);
+  }
+
+  /**
+    Constructs an undirected and unweighted graph of `n` vertices without any edge.
+
+    @param n The number of vertices.
+  */
+
+  public IntGraph(int n){
+    this(n, false, false);
+  }
+
+  /**
+    Reads an adjacency matrix file straight into a weighted graph.
+
+    Desc: The non-zero elements streamed by `FileManipulation.streamAdjacentMatrix` are appended to the rows as they are parsed, with vertex `i` being the row and column `i` of the matrix, as in `Graph.readAdjacentMatrix`.
+    If the file cannot be read, an empty graph is returned.
+
+    @param path The path to the file containing the adjacency matrix.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @return The graph of the matrix.
+    @throws IllegalArgumentException If the file contains an invalid value or the quantity of values read does not match the expected size.
+  */
+
+  public static IntGraph readAdjacentMatrix(String path, boolean directed){
+    IntGraph[] graph = {new IntGraph(0, directed, true)};
+    FileManipulation.streamAdjacentMatrix(path, new EdgeSink() {
+      public void begin(int vertices){
+        graph[0] = new IntGraph(vertices, directed, true);
+      }
+
+      public void edge(int source, int target, int weight){
+        graph[0].putEdge(source, target, weight);
+      }
+    });
+    return graph[0];
+  }
+
+  /**
+    Converts a graph into an `IntGraph`.
+
+    Desc: The vertex ids are the ids of `graph.freeze()`, map them back with `CSRGraph.dataOf`.
+    For a graph whose vertices were added as 0 to n - 1 in that order (e.g. by `Graph.readAdjacentMatrix` or `Graph.initializeGraph`), vertex `i` holds the id `i`.
+    An unweighted edge weighs 0.
+
+    @param graph The graph to convert.
+    @return The graph with int vertices and weights.
+  */
+
+  public static <T> IntGraph from(Graph<T> graph){
+    return from(graph.freeze());
+  }
+
+  /**
+    Converts a frozen graph into an `IntGraph` with the same vertex ids.
+
+    Desc: Each row of the frozen graph is copied into the row of the same vertex. An undirected self-loop, which a `CSRGraph` stores twice in its row, is stored once.
+
+    @param graph The frozen graph to convert.
+    @return The graph with int vertices and weights.
+  */
+
+  public static <T> IntGraph from(CSRGraph<T> graph){
+    int n = graph.vertexCount();
+    IntGraph copy = new IntGraph(n, graph.isDirected(), graph.isWeighted());
+    for(int v = 0; v < n; v++){
+      int start = graph.offset(v), end = graph.offset(v + 1), size = 0, loops = 0;
+      int[] targets = new int[end - start], weights = new int[end - start];
+      for(int a = start; a < end; a++){
+        int u = graph.target(a);
+        if(u == v && !graph.isDirected() && (loops++ & 1) == 1) continue;
+        if(graph.isDirected() || u >= v) copy.edgeCount++;
+        targets[size] = u;
+        weights[size++] = graph.weight(a);
+      }
+      copy.targets[v] = targets;
+      copy.weights[v] = weights;
+      copy.degrees[v] = size;
+    }
+    return copy;
+  }
+
+  /**
+    Adds a vertex to the graph.
+
+    @return The id of the new vertex.
+  */
+
+  public int addVertex(){
+    if(this.vertexCount == this.degrees.length){
+      int capacity = this.vertexCount * 2;
+      this.targets = Arrays.copyOf(this.targets, capacity);
+      this.weights = Arrays.copyOf(this.weights, capacity);
+      this.degrees = Arrays.copyOf(this.degrees, capacity);
+      Arrays.fill(this.targets, this.vertexCount, capacity, EMPTY);
+      Arrays.fill(this.weights, this.vertexCount, capacity, EMPTY);
+    }
+    return this.vertexCount++;
+  }
+
+  /**
+    Adds an edge to the graph between two vertices with the given weight.
+
+    Desc: The edge is appended to the row of `v`, and to the row of `u` if the graph is undirected and `u` is not `v`, in amortized O(1) time.
+    If the graph is not weighted, a non-zero weight is dropped and a message is printed, as in `Graph.putEdge`.
+
+    @param v The id of the first vertex.
+    @param u The id of the second vertex.
+    @param weight The weight of the edge.
+    @throws NoSuchElementException if either of the vertices is not found in the graph.
+  */
+
+  public void putEdge(int v, int u, int weight){
+    if(!contains(v) || !contains(u)) throw new NoSuchElementException(String.format("Neither %d or %d was found.", v, u));
+    if(!this.weighted && weight != 0){
+      System.out.println(String.format("Non-weighted graph, the given weight (%d) was not considered.", weight));
+      weight = 0;
+    }
+    append(v, u, weight);
+    if(!this.directed && v != u) append(u, v, weight);
+    this.edgeCount++;
+  }
+
+  /**
+    Adds an unweighted edge to the graph between two vertices.
+
+    @param v The id of the first vertex.
+    @param u The id of the second vertex.
+    @throws NoSuchElementException if either of the vertices is not found in the graph.
+  */
+
+  public void putEdge(int v, int u){
+    this.putEdge(v, u, 0);
+  }
+
+  /**
+    Removes one edge between two vertices with the given weight.
+
+    Desc: The arc is searched in the row of `v` and replaced by the last arc of the row, so the removal is O(degree) and the order of the row changes.
+    In an undirected graph the edge can be removed from either endpoint, its arc in the row of the other endpoint is removed as well.
+
+    @param v The id of the first vertex.
+    @param u The id of the second vertex.
+    @param weight The weight of the edge.
+    @throws NoSuchElementException if the edge is not found in the graph.
+  */
+
+  public void removeEdge(int v, int u, int weight){
+    if(!contains(v) || !contains(u) || !remove(v, u, weight))
+      throw new NoSuchElementException(String.format("Edge (%d, %d) with weight %d was not found.", v, u, weight));
+    if(!this.directed && v != u) remove(u, v, weight);
+    this.edgeCount--;
+  }
+
+  /**
+    Removes one unweighted edge between two vertices.
+
+    @param v The id of the first vertex.
+    @param u The id of the second vertex.
+    @throws NoSuchElementException if the edge is not found in the graph.
+  */
+
+  public void removeEdge(int v, int u){
+    this.removeEdge(v, u, 0);
+  }
+
+  /**
+    Returns the number of vertices in the graph.
+
+    @return The number of vertices.
+  */
+
+  public int vertexCount(){
+    return this.vertexCount;
+  }
+
+  /**
+    Returns the number of edges in the graph, every undirected edge being counted once.
+
+    @return The number of edges.
+  */
+
+  public int edgeCount(){
+    return this.edgeCount;
+  }
+
+  /**
+    Returns the number of arcs in the row of a vertex.
+
+    Desc: The arcs of vertex `v` are `target(v, i)` and `weight(v, i)` for i from 0 to `degree(v) - 1`, so a neighbor walk is a plain loop without any allocation.
+
+    @param v The id of the vertex.
+    @return The out degree of the vertex, an undirected self-loop counting once.
+  */
+
+  public int degree(int v){
+    return this.degrees[v];
+  }
+
+  /**
+    Returns the target of an arc of a vertex.
+
+    @param v The id of the vertex.
+    @param i The index of the arc in the row of the vertex.
+    @return The id of the arc target.
+  */
+
+  public int target(int v, int i){
+    return this.targets[v][i];
+  }
+
+  /**
+    Returns the weight of an arc of a vertex.
+
+    @param v The id of the vertex.
+    @param i The index of the arc in the row of the vertex.
+    @return The arc weight, 0 if the graph is unweighted.
+  */
+
+  public int weight(int v, int i){
+    return this.weights[v][i];
+  }
+
+  /**
+    Returns whether the graph is directed.
+
+    @return true if the graph is directed, false otherwise.
+  */
+
+  public boolean isDirected(){
+    return this.directed;
+  }
+
+  /**
+    Returns whether the graph is weighted.
+
+    @return true if the graph is weighted, false otherwise.
+  */
+
+  public boolean isWeighted(){
+    return this.weighted;
+  }
+
+  /**
+    Streams every edge of the graph once to a sink.
+
+    Desc: The sink first receives the number of vertices, then every edge as primitive ints, row by row.
+    In an undirected graph an edge is stored in both of its rows, so it is only reported from the row of its lower endpoint.
+
+    @param sink The sink receiving the vertices and the edges.
+  */
+
+  public void edges(EdgeSink sink){
+    sink.begin(this.vertexCount);
+    for(int v = 0; v < this.vertexCount; v++){
+      int[] targets = this.targets[v], weights = this.weights[v];
+      for(int i = 0; i < this.degrees[v]; i++)
+        if(this.directed || targets[i] >= v) sink.edge(v, targets[i], weights[i]);
+    }
+  }
+
+  /**
+    Freezes the graph into an immutable compressed sparse row representation.
+
+    Desc: Vertex `i` of the frozen graph holds the `Integer` data `i`, so the ids of both graphs are the same.
+
+    @return The compressed sparse row representation of the graph.
+  */
+
+  public CSRGraph<Integer> freeze(){
+    int m = this.edgeCount;
+    int[] sources = new int[m], ends = new int[m], values = new int[m];
+    int[] k = new int[1];
+    this.edges(new EdgeSink() {
+      public void begin(int vertices){
+      }
+
+      public void edge(int source, int target, int weight){
+        sources[k[0]] = source;
+        ends[k[0]] = target;
+        values[k[0]++] = weight;
+      }
+    });
+    Object[] data = new Object[this.vertexCount];
+    for(int i = 0; i < data.length; i++) data[i] = Integer.valueOf(i);
+    return CSRGraph.fromEdges(data, sources, ends, values, this.directed, this.weighted);
+  }
+
+  /**
+    Converts the graph into a `Graph` whose vertex `i` holds the `Integer` data `i`.
+
+    Desc: Parallel edges of equal weight become a single edge, since a `Graph` keeps a set of edges. An unweighted edge gets a null weight.
+
+    @return The graph of the object layer.
+  */
+
+  public Graph<Integer> toGraph(){
+    Graph<Integer> graph = new Graph<>(this.directed, this.weighted);
+    graph.initializeGraph(this.vertexCount);
+    this.edges(new EdgeSink() {
+      public void begin(int vertices){
+      }
+
+      public void edge(int source, int target, int weight){
+        graph.putEdge(source, target, weighted ? Integer.valueOf(weight) : null);
+      }
+    });
+    return graph;
+  }
+
+  /**
+    Returns a string representation of the graph.
+
+    @return A string describing the size and settings of the graph.
+  */
+
+  @Override
+  public String toString(){
+    return String.format("IntGraph %s and %s with |V| = %d and |E| = %d",
+      this.directed ? "directed" : "undirected", this.weighted ? "weighted" : "unweighted", this.vertexCount, this.edgeCount);
+  }
+
+  /**
+    Returns whether the id is the id of a vertex of the graph.
+  */
+
+  private boolean contains(int v){
+    return v >= 0 && v < this.vertexCount;
+  }
+
+  /**
+    Appends an arc to the row of a vertex, doubling the row when it is full.
+  */
+
+  private void append(int v, int u, int weight){
+    int d = this.degrees[v];
+    if(d == this.targets[v].length){
+      int capacity = Math.max(4, d * 2);
+      this.targets[v] = Arrays.copyOf(this.targets[v], capacity);
+      this.weights[v] = Arrays.copyOf(this.weights[v], capacity);
+    }
+    this.targets[v][d] = u;
+    this.weights[v][d] = weight;
+    this.degrees[v] = d + 1;
+  }
+
+  /**
+    Removes one arc from the row of a vertex, moving the last arc of the row in its place.
+
+    @return true if the arc was found, false otherwise.
+  */
+
+  private boolean remove(int v, int u, int weight){
+    int[] targets = this.targets[v], weights = this.weights[v];
+    int last = this.degrees[v] - 1;
+    for(int i = 0; i <= last; i++){
+      if(targets[i] != u || weights[i] != weight) continue;
+      targets[i] = targets[last];
+      weights[i] = weights[last];
+      this.degrees[v] = last;
+      return true;
+    }
+    return false;
+  }
+}
@@ -1,46 +1,406 @@
 package graph;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.function.Consumer;
+import files.EdgeSink;
 
 public abstract class Kruskal {
+  private final static int MAX_BUCKETS = 1 << 20; // Widest weight range the BUCKET strategy accepts
+  private final static String RADIX_OFF_HEAP = "RADIX_OFF_HEAP"; // Strategy reported by the events of the off-heap MST, which is not a `Strategy` of its own
+
+  /**
+    The ways Kruskal's algorithm can order the edges of a graph by weight.
+  */
+
+  public enum Strategy {
+    /** Sorts a `List` of the `Edge` objects with a comparator on their boxed weights. */
+    COMPARISON,
+    /** Packs the weight and index of each edge into a `long` key and sorts the keys with `Arrays.parallelSort`. */
+    PACKED,
+    /** Distributes the edges into one bucket per weight with a counting sort, for small weight ranges. */
+    BUCKET,
+    /** Uses `BUCKET` when the weight range is small compared to the number of edges, `PACKED` otherwise. */
+    AUTO
+  }
+
   /**
     Computes the Minimum Spanning Tree (MST) of a given graph using Kruskal's algorithm.
     
     Desc: This method computes the Minimum Spanning Tree (MST) of a given graph using Kruskal's algorithm. 
     It takes a `graph` as input and returns a set of edges representing the Minimum Spanning Tree of the graph.
-    The method initializes an empty set `A` to store the MST edges and creates a `DisjointSet` to keep track of disjoint sets of vertices.
-    It then sorts the edges of the graph in ascending order based on their weights using a `TreeSet` and a custom comparator.
-    Next, it iterates over the sorted edges. For each edge, it checks if adding the edge to `A` would create a cycle in the MST. If not, the edge is added to `A`, and the disjoint sets of the source and target vertices are unioned using the `union` method of `DisjointSet`.
+    The method initializes an empty set `A` to store the MST edges.
+    It then orders the edges of the graph in ascending order based on their weights, edges of equal weight are all kept.
+    When the weights span a range no wider than the number of edges (like the 1 to `matriceElementBoundary` weights of the generated files), the edges are distributed into one bucket per weight in O(|E| + W),
+    otherwise each weight is packed with the index of its edge into a `long` key sorted with `Arrays.parallelSort`.
+    Next, it iterates over the sorted edges. For each edge, it checks if adding the edge to `A` would create a cycle in the MST. If not, the edge is added to `A` and the disjoint sets of the source and target vertices are unioned.
+    If the vertices are densely numbered (`Integer` data from 0 to |V| - 1, as produced by `readAdjacentMatrix`), the disjoint sets are kept in an `IntDisjointSet` indexed by the vertex data, so no find or union allocates.
+    Otherwise a `DisjointSet` of vertices is used.
     Finally, the method returns the set `A`, which represents the Minimum Spanning Tree of the graph.
+    If the graph is disconnected, `A` is a minimum spanning forest with one tree per connected component, `Components.connectedComponents` tells which component each vertex belongs to.
+    This is the `AUTO` strategy, see `MST(Graph, Strategy)` to choose another one.
 
-    The time complexity of this method is O(|E| log |E|), where E is the number of edges in the graph.
+    The time complexity of this method is O(|E| log |E|), where E is the number of edges in the graph, or O(|E| alpha(|V|)) when the weights are bucketed.
     
     @param graph The graph for which to compute the MST.
     @return A set of edges forming the Minimum Spanning Tree of the graph.  
   */
   
   public static <T> Set<Edge<T>> MST(Graph<T> graph){
+    return MST(graph, Strategy.AUTO);
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using Kruskal's algorithm, ordering the edges with the given strategy.
+
+    Desc: Every strategy orders the edges by ascending weight and keeps edges of equal weight in the order of `graph.getEdges()`, so they all produce the same tree.
+    `COMPARISON` sorts the `Edge` objects themselves, chasing a pointer and unboxing a weight on every comparison.
+    `PACKED` builds one `long` per edge, the weight in the high 32 bits and the index of the edge in the low 32 bits, and sorts them with `Arrays.parallelSort`:
+    the sort compares primitives in a flat array, runs on the common `ForkJoinPool`, and allocates a single array instead of the sort's object buffers.
+    `BUCKET` finds the smallest and largest weights, counts the edges of each weight and places every edge at its weight's offset, in O(|E| + W) time where W is the width of the weight range, without any comparison.
+    `AUTO` picks `BUCKET` when W is at most |E|, so the buckets never outnumber the edges, and `PACKED` otherwise.
+    An unweighted edge weighs 0 with `PACKED`, `BUCKET` and `AUTO`, `COMPARISON` requires every edge to carry a weight.
+
+    @param graph The graph for which to compute the MST.
+    @param strategy The way the edges are ordered by weight.
+    @return A set of edges forming the Minimum Spanning Tree of the graph.
+    @throws IllegalArgumentException if the strategy is `BUCKET` and the weights span more than 2^20 values.
+  */
+
+  public static <T> Set<Edge<T>> MST(Graph<T> graph, Strategy strategy){
     Set<Edge<T>> A = new LinkedHashSet<>();
+    run(graph, strategy, A::add);
+    return A;
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using Kruskal's algorithm, streaming its edges to a consumer.
+
+    Desc: This method runs the same sweep as `MST(Graph)`, but instead of collecting the accepted edges into a set, 
+    it hands each one to the `consumer` as soon as it is accepted, in ascending weight order.
+    This lets a caller write the tree to a file (see `files.AnswerWriter`) without keeping the set of edges nor their string representation in memory.
+
+    @param graph The graph for which to compute the MST.
+    @param consumer The consumer receiving the edges of the Minimum Spanning Tree.
+  */
+
+  public static <T> void MST(Graph<T> graph, EdgeConsumer<T> consumer){
+    MST(graph, Strategy.AUTO, consumer);
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using Kruskal's algorithm with the given strategy, streaming its edges to a consumer.
+
+    @param graph The graph for which to compute the MST.
+    @param strategy The way the edges are ordered by weight, see `MST(Graph, Strategy)`.
+    @param consumer The consumer receiving the edges of the Minimum Spanning Tree.
+    @throws IllegalArgumentException if the strategy is `BUCKET` and the weights span more than 2^20 values.
+  */
+
+  public static <T> void MST(Graph<T> graph, Strategy strategy, EdgeConsumer<T> consumer){
+    run(graph, strategy, e -> consumer.accept(e.getSource().getData(), e.getTarget().getData(), e.getWeight()));
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of an `IntGraph` using Kruskal's algorithm, streaming its edges to a sink.
+
+    Desc: This method runs the `PACKED` strategy on primitives only: the edges are listed into int arrays by `IntGraph.edges`,
+    their packed `long` keys are sorted with `Arrays.parallelSort`, and the sweep unions the vertex ids in an `IntDisjointSet`.
+    No `Edge`, `Vertex` nor boxed weight is created, and the sweep stops as soon as |V| - 1 edges are accepted.
+    The sink first receives the number of vertices, then every accepted edge in ascending weight order.
+    If the graph is disconnected, the edges form a minimum spanning forest, see `Components.connectedComponents`.
+
+    @param graph The graph for which to compute the MST.
+    @param sink The sink receiving the edges of the Minimum Spanning Tree.
+  */
+
+  public static void MST(IntGraph graph, EdgeSink sink){
+    KruskalEvent event = new KruskalEvent();
+    event.begin();
+    int n = graph.vertexCount(), m = graph.edgeCount();
+    int[] sources = new int[m], targets = new int[m];
+    long[] keys = new long[m];
+    graph.edges(new EdgeSink() {
+      private int i;
+
+      public void begin(int vertices){
+      }
+
+      public void edge(int source, int target, int weight){
+        sources[this.i] = source;
+        targets[this.i] = target;
+        keys[this.i] = ((long) weight << 32) | this.i++;
+      }
+    });
+    Arrays.parallelSort(keys);
+
+    sink.begin(n);
+    IntDisjointSet disjointSet = new IntDisjointSet(n);
+    long examined = 0, accepted = 0;
+    for(int i = 0; i < m && accepted < n - 1; i++){
+      int e = (int) keys[i];
+      examined++;
+      if(disjointSet.union(sources[e], targets[e])){
+        sink.edge(sources[e], targets[e], (int) (keys[i] >> 32));
+        accepted++;
+      }
+    }
+    if(Metrics.ENABLED){
+      Metrics.KRUSKAL_EXAMINED.add(examined);
+      Metrics.KRUSKAL_ACCEPTED.add(accepted);
+    }
+    event.end();
+    if(event.shouldCommit()){
+      event.strategy = Strategy.PACKED.name();
+      event.vertices = n;
+      event.examined = examined;
+      event.accepted = accepted;
+      event.commit();
+    }
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of an off-heap edge store using Kruskal's algorithm, streaming its edges to a sink.
+
+    Desc: This method orders the store itself by ascending weight with `OffHeapEdgeStore.sortByWeight`, a stable radix sort run off-heap, so the store is left sorted by weight.
+    The sweep then reads the edges in place and unions the vertex ids in an `IntDisjointSet`, the only structure on the heap, and stops as soon as |V| - 1 edges are accepted.
+    The sink first receives the number of vertices, then every accepted edge in ascending weight order, edges of equal weight being taken in the order they were added.
+    If the graph is disconnected, the edges form a minimum spanning forest.
+
+    The time complexity of this method is O(|E| alpha(|V|)), the sort being linear.
+
+    @param store The edges of the graph for which to compute the MST.
+    @param sink The sink receiving the edges of the Minimum Spanning Tree.
+  */
+
+  public static void MST(OffHeapEdgeStore store, EdgeSink sink){
+    KruskalEvent event = new KruskalEvent();
+    event.begin();
+    store.sortByWeight();
+
+    int n = store.vertexCount();
+    long m = store.size(), examined = 0, accepted = 0;
+    sink.begin(n);
+    IntDisjointSet disjointSet = new IntDisjointSet(n);
+    for(long e = 0; e < m && accepted < n - 1; e++){
+      int source = store.source(e), target = store.target(e);
+      examined++;
+      if(disjointSet.union(source, target)){
+        sink.edge(source, target, store.weight(e));
+        accepted++;
+      }
+    }
+    if(Metrics.ENABLED){
+      Metrics.KRUSKAL_EXAMINED.add(examined);
+      Metrics.KRUSKAL_ACCEPTED.add(accepted);
+    }
+    event.end();
+    if(event.shouldCommit()){
+      event.strategy = RADIX_OFF_HEAP;
+      event.vertices = n;
+      event.examined = examined;
+      event.accepted = accepted;
+      event.commit();
+    }
+  }
+
+  /**
+    Orders the edges of the graph with the given strategy and sweeps them, passing every accepted edge to `accept`.
+
+    Desc: The number of edges examined and accepted are added to the `Metrics` counters (when enabled) and reported with the strategy in a `graph.KruskalMST` JFR event (when recorded).
+
+    @param graph The graph for which to compute the MST.
+    @param strategy The way the edges are ordered by weight.
+    @param accept The action receiving each accepted edge.
+  */
+
+  private static <T> void run(Graph<T> graph, Strategy strategy, Consumer<Edge<T>> accept){
+    KruskalEvent event = new KruskalEvent();
+    event.begin();
+    List<Edge<T>> sortedEdges = sortedEdges(graph, strategy);
+    long accepted = sweep(sortedEdges, graph, accept);
+    if(Metrics.ENABLED){
+      Metrics.KRUSKAL_EXAMINED.add(sortedEdges.size());
+      Metrics.KRUSKAL_ACCEPTED.add(accepted);
+    }
+    event.end();
+    if(event.shouldCommit()){
+      event.strategy = strategy.name();
+      event.vertices = graph.getVertices().size();
+      event.examined = sortedEdges.size();
+      event.accepted = accepted;
+      event.commit();
+    }
+  }
+
+  /**
+    Returns the edges of the graph ordered by ascending weight with the given strategy.
+
+    @param graph The graph whose edges are sorted.
+    @param strategy The way the edges are ordered.
+    @return The edges of the graph, by ascending weight.
+  */
+
+  private static <T> List<Edge<T>> sortedEdges(Graph<T> graph, Strategy strategy){
+    List<Edge<T>> edges = new ArrayList<>(graph.getEdges());
+    switch(strategy){
+      case PACKED:
+        return packedSort(edges);
+      case BUCKET:
+        return bucketSort(edges);
+      case AUTO:
+        return weightRange(edges) <= Math.max(edges.size(), 1) ? bucketSort(edges) : packedSort(edges);
+      default:
+        edges.sort(new Comparator<Edge<T>>() {
+          public int compare(Edge<T> e1, Edge<T> e2){
+            return Integer.compare(e1.getWeight(), e2.getWeight());
+          } 
+        });
+        return edges;
+    }
+  }
+
+  /**
+    Sorts the edges by ascending weight through packed primitive keys.
+
+    Desc: Key i is `((long) weight << 32) | i`, so comparing two keys compares the weights as signed ints and then the indexes,
+    which keeps edges of equal weight in their original order without a stable sort.
+    The keys are sorted with `Arrays.parallelSort` and the edges are read back in key order through the index held by each key.
+
+    @param edges The edges to sort, in their original order.
+    @return The edges by ascending weight.
+  */
+
+  private static <T> List<Edge<T>> packedSort(List<Edge<T>> edges){
+    int m = edges.size();
+    long[] keys = new long[m];
+    for(int i = 0; i < m; i++){
+      keys[i] = ((long) weightOf(edges.get(i)) << 32) | i;
+    }
+    Arrays.parallelSort(keys);
+    List<Edge<T>> sorted = new ArrayList<>(m);
+    for(long key : keys) sorted.add(edges.get((int) key));
+    return sorted;
+  }
+
+  /**
+    Orders the edges by ascending weight with a counting sort over their weight range.
+
+    Desc: A first pass counts the edges of each weight, a prefix sum turns the counts into the first position of each weight, and a second pass places every edge at the next position of its weight.
+    Both passes follow the original order, so edges of equal weight keep it.
+
+    @param edges The edges to sort, in their original order.
+    @return The edges by ascending weight.
+    @throws IllegalArgumentException if the weights span more than `MAX_BUCKETS` values.
+  */
+
+  private static <T> List<Edge<T>> bucketSort(List<Edge<T>> edges){
+    long range = weightRange(edges);
+    if(range > MAX_BUCKETS) throw new IllegalArgumentException(String.format("The weights span %d values, more than the %d buckets allowed.", range, MAX_BUCKETS));
+    int m = edges.size(), min = 0;
+    int[] weights = new int[m];
+    for(int i = 0; i < m; i++){
+      weights[i] = weightOf(edges.get(i));
+      if(i == 0 || weights[i] < min) min = weights[i];
+    }
+    int[] start = new int[(int) range + 1];
+    for(int w : weights) start[w - min + 1]++;
+    for(int b = 1; b <= range; b++) start[b] += start[b - 1];
+    Edge<T>[] sorted = newEdges(m);
+    for(int i = 0; i < m; i++) sorted[start[weights[i] - min]++] = edges.get(i);
+    return Arrays.asList(sorted);
+  }
+
+  /**
+    Returns the number of distinct values between the smallest and the largest weight of the edges, both included, 0 if there is no edge.
+  */
+
+  private static <T> long weightRange(List<Edge<T>> edges){
+    if(edges.isEmpty()) return 0;
+    int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+    for(Edge<T> e : edges){
+      int w = weightOf(e);
+      min = Math.min(min, w);
+      max = Math.max(max, w);
+    }
+    return (long) max - min + 1;
+  }
+
+  /**
+    Returns the weight of an edge, 0 if the edge is unweighted.
+  */
+
+  private static <T> int weightOf(Edge<T> e){
+    return e.getWeight() == null ? 0 : e.getWeight();
+  }
+
+  /**
+    Passes every edge, in the given order, that joins two different trees to `accept`.
+
+    @param sortedEdges The edges of the graph, by ascending weight.
+    @param graph The graph for which to compute the MST.
+    @param accept The action receiving each accepted edge.
+    @return The number of accepted edges.
+  */
+
+  private static <T> long sweep(List<Edge<T>> sortedEdges, Graph<T> graph, Consumer<Edge<T>> accept){
+    long accepted = 0;
+
+    if(isDenselyNumbered(graph)){
+      IntDisjointSet disjointSet = new IntDisjointSet(graph.getVertices().size());
+      for(Edge<T> e : sortedEdges){
+        if(disjointSet.union((Integer) e.getSource().getData(), (Integer) e.getTarget().getData())){
+          accept.accept(e);
+          accepted++;
+        }
+      }
+      return accepted;
+    }
+
     DisjointSet<Vertex<T>> disjointSet = new DisjointSet<>();
     graph.getVertices().forEach(v -> disjointSet.makeSet(v)); 
-    SortedSet<Edge<T>> sortedEdges = new TreeSet<>(new Comparator<Edge<T>>() {
-      public int compare(Edge<T> e1, Edge<T> e2){
-        return Integer.compare(e1.getWeight(), e2.getWeight());
-      } 
-    });
-    sortedEdges.addAll(graph.getEdges());   
-    sortedEdges.forEach(e -> {              
+    for(Edge<T> e : sortedEdges){
       Vertex<T> source = e.getSource();
       Vertex<T> target = e.getTarget();
       if(!(disjointSet.find(source).equals(disjointSet.find(target)))){
-        A.add(e);
+        accept.accept(e);
         disjointSet.union(source, target);
+        accepted++;
       }
-    });
-    return A;
+    }
+    return accepted;
+  }
+
+  /**
+    Allocates an array of `m` edges.
+  */
+
+  @SuppressWarnings("unchecked")
+  private static <T> Edge<T>[] newEdges(int m){
+    return (Edge<T>[]) new Edge<?>[m];
+  }
+
+  /**
+    Checks whether the vertices of the graph hold exactly the `Integer` values 0 to |V| - 1.
+
+    Desc: Since the vertices are a set, |V| distinct `Integer` values in the range [0, |V|) are necessarily the whole range,
+    so the values can be used directly as indexes of an `IntDisjointSet`.
+
+    @param graph The graph to check.
+    @return true if the vertices are densely numbered, false otherwise.
+  */
+
+  private static <T> boolean isDenselyNumbered(Graph<T> graph){
+    int n = graph.getVertices().size();
+    for(Vertex<T> v : graph.getVertices()){
+      if(!(v.getData() instanceof Integer)) return false;
+      int id = (Integer) v.getData();
+      if(id < 0 || id >= n) return false;
+    }
+    return true;
   }
 }
@@ -0,0 +1,23 @@
+package graph;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("graph.KruskalMST")
+@Label("Kruskal MST")
+@Category("Graph")
+@Description("One run of Kruskal's algorithm, from the sort of the edges to the last accepted edge")
+class KruskalEvent extends jdk.jfr.Event {
+  @Label("Strategy")
+  String strategy;
+
+  @Label("Vertices")
+  int vertices;
+
+  @Label("Edges Examined")
+  long examined;
+
+  @Label("Edges Accepted")
+  long accepted;
+}
@@ -0,0 +1,289 @@
+package graph;
+import java.util.Arrays;
+
+class LinkCutTree {
+  private final static int NONE = -1; // Marks a missing child or parent
+  private final static int INITIAL_CAPACITY = 16; // The number of nodes the arrays are first sized for
+
+  private int[] left; // left child of each node in its splay tree
+  private int[] right; // right child of each node in its splay tree
+  private int[] parent; // splay parent of each node, or path-parent when the node is the root of its splay tree
+  private boolean[] flipped; // pending reversal of each splay subtree
+  private long[] keys; // key of each node, compared by `pathMax`
+  private int[] max; // node of maximum key in each splay subtree
+  private int[] free; // released node ids, reused by `add`
+  private int freeCount; // number of ids in `free`
+  private int[] stack; // splay ancestors of the node being splayed, see `pushFromRoot`
+  private int size; // number of node ids ever handed out
+
+  /**
+    Constructs an empty forest of link-cut trees.
+
+    Desc: A link-cut tree keeps a forest of rooted trees as a set of preferred paths, each one stored in a splay tree ordered by depth.
+    Linking, cutting, finding the root of a node and finding the node of maximum key on the path between two nodes all run in O(log n) amortized time.
+    Nodes are dense int ids and every field is a plain array grown on demand, so no operation allocates besides the growth.
+  */
+
+  LinkCutTree(){
+    this.left = new int[INITIAL_CAPACITY];
+    this.right = new int[INITIAL_CAPACITY];
+    this.parent = new int[INITIAL_CAPACITY];
+    this.flipped = new boolean[INITIAL_CAPACITY];
+    this.keys = new long[INITIAL_CAPACITY];
+    this.max = new int[INITIAL_CAPACITY];
+    this.free = new int[INITIAL_CAPACITY];
+    this.stack = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+    Adds an isolated node with the given key.
+
+    @param key The key of the node.
+    @return The id of the node, the id of a released node if any.
+  */
+
+  int add(long key){
+    int x;
+    if(this.freeCount > 0) x = this.free[--this.freeCount];
+    else {
+      if(this.size == this.left.length) grow();
+      x = this.size++;
+    }
+    this.left[x] = this.right[x] = this.parent[x] = NONE;
+    this.flipped[x] = false;
+    this.keys[x] = key;
+    this.max[x] = x;
+    return x;
+  }
+
+  /**
+    Releases an isolated node, its id is reused by a later `add`.
+
+    @param x The node, which must not be linked to any other node.
+  */
+
+  void release(int x){
+    this.free[this.freeCount++] = x;
+  }
+
+  /**
+    Changes the key of an isolated node.
+
+    @param x The node, which must not be linked to any other node.
+    @param key The new key of the node.
+  */
+
+  void setKey(int x, long key){
+    this.keys[x] = key;
+  }
+
+  /**
+    Returns the key of a node.
+
+    @param x The node.
+    @return The key given to the node by `add` or `setKey`.
+  */
+
+  long key(int x){
+    return this.keys[x];
+  }
+
+  /**
+    Links two nodes of different trees with a tree edge.
+
+    @param x The first node.
+    @param y The second node, in a different tree than `x`.
+  */
+
+  void link(int x, int y){
+    makeRoot(x);
+    this.parent[x] = y;
+  }
+
+  /**
+    Removes the tree edge between two adjacent nodes.
+
+    Desc: Once `x` is the root of its tree and `y` has been accessed, `x` is the only node shallower than `y` on the path, so it is the whole left subtree of `y`.
+
+    @param x The first node.
+    @param y The second node, adjacent to `x`.
+  */
+
+  void cut(int x, int y){
+    makeRoot(x);
+    access(y);
+    this.parent[this.left[y]] = NONE;
+    this.left[y] = NONE;
+    pull(y);
+  }
+
+  /**
+    Returns whether two nodes are in the same tree.
+
+    @param x The first node.
+    @param y The second node.
+    @return true if the nodes are connected, false otherwise.
+  */
+
+  boolean connected(int x, int y){
+    return x == y || findRoot(x) == findRoot(y);
+  }
+
+  /**
+    Returns the node of maximum key on the tree path between two connected nodes, both included.
+
+    @param x The first node.
+    @param y The second node, in the same tree as `x`.
+    @return The node of maximum key on the path.
+  */
+
+  int pathMax(int x, int y){
+    makeRoot(x);
+    access(y);
+    return this.max[y];
+  }
+
+  /**
+    Returns the root of the tree of a node.
+  */
+
+  private int findRoot(int x){
+    access(x);
+    push(x);
+    while(this.left[x] != NONE){
+      x = this.left[x];
+      push(x);
+    }
+    splay(x);
+    return x;
+  }
+
+  /**
+    Makes a node the root of its tree, by reversing the path from the former root to it.
+  */
+
+  private void makeRoot(int x){
+    access(x);
+    this.flipped[x] ^= true;
+  }
+
+  /**
+    Makes the path from the root of the tree to a node preferred, and splays the node to the root of its splay tree.
+  */
+
+  private void access(int x){
+    int last = NONE;
+    for(int y = x; y != NONE; y = this.parent[y]){
+      splay(y);
+      this.right[y] = last;
+      pull(y);
+      last = y;
+    }
+    splay(x);
+  }
+
+  /**
+    Whether a node is the root of its splay tree, its parent link then being a path-parent link.
+  */
+
+  private boolean isSplayRoot(int x){
+    int p = this.parent[x];
+    return p == NONE || (this.left[p] != x && this.right[p] != x);
+  }
+
+  /**
+    Moves a node to the root of its splay tree by rotations.
+  */
+
+  private void splay(int x){
+    pushFromRoot(x);
+    while(!isSplayRoot(x)){
+      int p = this.parent[x];
+      if(!isSplayRoot(p)){
+        int g = this.parent[p];
+        boolean zigZig = (this.left[g] == p) == (this.left[p] == x);
+        rotate(zigZig ? p : x);
+      }
+      rotate(x);
+    }
+  }
+
+  /**
+    Rotates a node above its splay parent.
+  */
+
+  private void rotate(int x){
+    int p = this.parent[x], g = this.parent[p];
+    if(!isSplayRoot(p)){
+      if(this.left[g] == p) this.left[g] = x;
+      else this.right[g] = x;
+    }
+    this.parent[x] = g;
+    if(this.left[p] == x){
+      this.left[p] = this.right[x];
+      if(this.right[x] != NONE) this.parent[this.right[x]] = p;
+      this.right[x] = p;
+    } else {
+      this.right[p] = this.left[x];
+      if(this.left[x] != NONE) this.parent[this.left[x]] = p;
+      this.left[x] = p;
+    }
+    this.parent[p] = x;
+    pull(p);
+    pull(x);
+  }
+
+  /**
+    Pushes the pending reversals down every splay ancestor of a node, from the splay root to the node.
+  */
+
+  private void pushFromRoot(int x){
+    int depth = 0;
+    for(int y = x; ; y = this.parent[y]){
+      this.stack[depth++] = y;
+      if(isSplayRoot(y)) break;
+    }
+    while(depth > 0) push(this.stack[--depth]);
+  }
+
+  /**
+    Applies the pending reversal of a node to its children.
+  */
+
+  private void push(int x){
+    if(!this.flipped[x]) return;
+    int l = this.left[x];
+    this.left[x] = this.right[x];
+    this.right[x] = l;
+    if(this.left[x] != NONE) this.flipped[this.left[x]] ^= true;
+    if(this.right[x] != NONE) this.flipped[this.right[x]] ^= true;
+    this.flipped[x] = false;
+  }
+
+  /**
+    Recomputes the maximum of a splay subtree from its children.
+  */
+
+  private void pull(int x){
+    int m = x;
+    if(this.left[x] != NONE && this.keys[this.max[this.left[x]]] > this.keys[m]) m = this.max[this.left[x]];
+    if(this.right[x] != NONE && this.keys[this.max[this.right[x]]] > this.keys[m]) m = this.max[this.right[x]];
+    this.max[x] = m;
+  }
+
+  /**
+    Doubles the capacity of every array.
+  */
+
+  private void grow(){
+    int capacity = this.left.length * 2;
+    this.left = Arrays.copyOf(this.left, capacity);
+    this.right = Arrays.copyOf(this.right, capacity);
+    this.parent = Arrays.copyOf(this.parent, capacity);
+    this.flipped = Arrays.copyOf(this.flipped, capacity);
+    this.keys = Arrays.copyOf(this.keys, capacity);
+    this.max = Arrays.copyOf(this.max, capacity);
+    this.free = Arrays.copyOf(this.free, capacity);
+    this.stack = Arrays.copyOf(this.stack, capacity);
+  }
+}
@@ -0,0 +1,25 @@
+package graph;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("graph.ReadAdjacentMatrix")
+@Label("Read Adjacent Matrix")
+@Category("Graph")
+@Description("One adjacency matrix file parsed into a Graph")
+class MatrixReadEvent extends jdk.jfr.Event {
+  @Label("Path")
+  String path;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Vertices")
+  int vertices;
+
+  @Label("Edges")
+  long edges;
+}
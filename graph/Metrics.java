@@ -0,0 +1,201 @@
+package graph;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public abstract class Metrics {
+  public final static boolean ENABLED = Boolean.getBoolean("graph.metrics"); // Set with -Dgraph.metrics=true, the instrumented code skips every update otherwise
+
+  private final static Map<String, Counter> counters = new LinkedHashMap<>(); // Registered counters, by name
+  private final static Map<String, Histogram> histograms = new LinkedHashMap<>(); // Registered histograms, by name
+
+  final static Counter PUT_EDGE_CALLS = counter("graph.putEdge.calls");
+  final static Counter EDGES_ADDED = counter("graph.putEdge.added");
+  final static Counter MATRIX_BYTES = counter("graph.readAdjacentMatrix.bytes");
+  final static Counter MATRIX_EDGES = counter("graph.readAdjacentMatrix.edges");
+  final static Counter KRUSKAL_EXAMINED = counter("kruskal.edges.examined");
+  final static Counter KRUSKAL_ACCEPTED = counter("kruskal.edges.accepted");
+  final static Counter UNIONS = counter("disjointSet.unions");
+  final static Histogram FIND_PATH = histogram("disjointSet.find.pathLength");
+
+  /**
+    A monotonic counter that many threads can increment at once.
+
+    Desc: The count is kept in a `LongAdder`, which spreads the increments of contending threads over separate cells and only sums them when read,
+    so an increment on a hot path costs about as much as an uncontended add.
+  */
+
+  public static class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter(){
+    }
+
+    /**
+      Adds one to the counter.
+    */
+
+    public void increment(){
+      this.value.increment();
+    }
+
+    /**
+      Adds the given amount to the counter.
+
+      @param amount The amount to add.
+    */
+
+    public void add(long amount){
+      this.value.add(amount);
+    }
+
+    /**
+      Returns the sum of the increments since the counter was created or last reset.
+    */
+
+    public long sum(){
+      return this.value.sum();
+    }
+
+    void reset(){
+      this.value.reset();
+    }
+  }
+
+  /**
+    A histogram of non-negative values with one bucket per power of two, that many threads can record into at once.
+
+    Desc: Every bucket is a `LongAdder`, so recording a value is one add on the bucket of its order of magnitude and one on the sum, without any lock nor allocation.
+    Bucket 0 holds the value 0 and bucket i > 0 the values in [2^(i-1), 2^i).
+  */
+
+  public static class Histogram {
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(){
+      for(int i = 0; i < this.buckets.length; i++) this.buckets[i] = new LongAdder();
+    }
+
+    /**
+      Records a value.
+
+      @param value The value to record, negative values are recorded as 0.
+    */
+
+    public void record(long value){
+      value = Math.max(value, 0);
+      this.buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+      this.sum.add(value);
+      this.max.accumulate(value);
+    }
+
+    /**
+      Returns the number of recorded values per power-of-two bucket.
+    */
+
+    public long[] buckets(){
+      return Arrays.stream(this.buckets).mapToLong(LongAdder::sum).toArray();
+    }
+
+    /**
+      Returns the number of recorded values.
+    */
+
+    public long count(){
+      return Arrays.stream(this.buckets).mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+      Returns the sum of the recorded values.
+    */
+
+    public long sum(){
+      return this.sum.sum();
+    }
+
+    /**
+      Returns the largest recorded value, 0 if none was recorded.
+    */
+
+    public long max(){
+      return this.max.get();
+    }
+
+    void reset(){
+      for(LongAdder b : this.buckets) b.reset();
+      this.sum.reset();
+      this.max.reset();
+    }
+  }
+
+  /**
+    Returns the counter registered under the given name, registering a new one if there is none.
+
+    Desc: The counters of the graph operations are registered when this class is loaded, under the names "graph.putEdge.calls", "graph.putEdge.added",
+    "graph.readAdjacentMatrix.bytes", "graph.readAdjacentMatrix.edges", "kruskal.edges.examined", "kruskal.edges.accepted" and "disjointSet.unions".
+    Callers can register their own counters, which are reported with them.
+
+    @param name The name of the counter.
+    @return The counter registered under the name.
+  */
+
+  public static synchronized Counter counter(String name){
+    return counters.computeIfAbsent(name, k -> new Counter());
+  }
+
+  /**
+    Returns the histogram registered under the given name, registering a new one if there is none.
+
+    Desc: The path lengths walked by `DisjointSet.find` and `IntDisjointSet.find` are recorded in the histogram "disjointSet.find.pathLength".
+
+    @param name The name of the histogram.
+    @return The histogram registered under the name.
+  */
+
+  public static synchronized Histogram histogram(String name){
+    return histograms.computeIfAbsent(name, k -> new Histogram());
+  }
+
+  /**
+    Hands the current value of every registered counter and histogram to a reporter.
+
+    Desc: The values are read while the instrumented code may still be running, each one is exact on its own but they are not a snapshot taken at a single point in time.
+    The metrics are only updated when the JVM runs with `-Dgraph.metrics=true` (see `ENABLED`), otherwise they all stay at 0.
+
+    @param reporter The reporter receiving the metrics.
+  */
+
+  public static synchronized void report(MetricsReporter reporter){
+    counters.forEach((name, c) -> reporter.counter(name, c.sum()));
+    histograms.forEach((name, h) -> reporter.histogram(name, h.count(), h.sum(), h.max(), h.buckets()));
+  }
+
+  /**
+    Prints the current value of every registered counter and histogram, one per line.
+  */
+
+  public static void report(){
+    report(new MetricsReporter() {
+      public void counter(String name, long value){
+        System.out.println(String.format("%s = %d", name, value));
+      }
+
+      public void histogram(String name, long count, long sum, long max, long[] buckets){
+        System.out.println(String.format("%s: count = %d, mean = %.2f, max = %d", name, count, count == 0 ? 0.0 : (double) sum / count, max));
+      }
+    });
+  }
+
+  /**
+    Resets every registered counter and histogram to 0, e.g. between two batches.
+  */
+
+  public static synchronized void reset(){
+    counters.values().forEach(Counter::reset);
+    histograms.values().forEach(Histogram::reset);
+  }
+}
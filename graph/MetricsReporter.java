@@ -0,0 +1,26 @@
+package graph;
+
+public interface MetricsReporter {
+  /**
+    Receives the current value of a counter.
+
+    @param name The name of the counter (e.g. "graph.putEdge.calls").
+    @param value The sum of the increments since the counter was created or last reset.
+  */
+
+  void counter(String name, long value);
+
+  /**
+    Receives the current state of a histogram.
+
+    Desc: Bucket 0 counts the recorded values equal to 0 and bucket i > 0 counts the values in [2^(i-1), 2^i), so the buckets give the order of magnitude of the values without storing them.
+
+    @param name The name of the histogram (e.g. "disjointSet.find.pathLength").
+    @param count The number of recorded values.
+    @param sum The sum of the recorded values.
+    @param max The largest recorded value, 0 if none was recorded.
+    @param buckets The number of recorded values per power-of-two bucket.
+  */
+
+  void histogram(String name, long count, long sum, long max, long[] buckets);
+}
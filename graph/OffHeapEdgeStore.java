@@ -0,0 +1,565 @@
+package graph;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import files.EdgeSink;
+import files.FileManipulation;
+
+public class OffHeapEdgeStore implements AutoCloseable {
+  private final static int MAGIC = 0x45474445; // "EDGE" read as a little-endian int
+  private final static byte VERSION = 1; // The version of the format written by this class
+  private final static int DIRECTED = 1; // Header flag set when the graph is directed
+  private final static int WEIGHTED = 2; // Header flag set when the edges carry weights
+  private final static int HEADER_SIZE = 32; // magic, version, flags, 2 reserved bytes, vertex count, 4 reserved bytes, edge count, 8 reserved bytes
+  private final static int RECORD_SIZE = 12; // source, target and weight of one edge
+  private final static int CHUNK_SHIFT = 22; // Every chunk holds 2^CHUNK_SHIFT edges, 48MB
+  private final static int CHUNK_EDGES = 1 << CHUNK_SHIFT;
+  private final static long CHUNK_BYTES = (long) CHUNK_EDGES * RECORD_SIZE;
+  private final static int DIGIT_BITS = 16; // The number of weight bits ordered by one pass of `sortByWeight`
+
+  private final boolean directed; // indicates whether the graph is directed or undirected.
+  private final boolean weighted; // indicates whether the edges carry weights.
+  private final int vertexCount; // The number of vertices, their ids are 0 to vertexCount - 1
+  private final String path; // The file backing the edges, null when they are kept in direct memory
+  private FileChannel channel; // The channel of `path`, null when the edges are kept in direct memory
+  private ByteBuffer[] chunks; // The chunks of edges, allocated or mapped when first reached
+  private long size; // The number of edges
+
+  /**
+    The arcs of an edge store grouped by source vertex, in compressed sparse row form.
+
+    Desc: The arcs stay off-heap in their own store, only the `|V| + 1` row offsets are kept in a `long` array,
+    so a traversal walks the row of `v` from `offset(v)` to `offset(v + 1)` as it would walk a `CSRGraph`.
+  */
+
+  public static class Adjacency implements AutoCloseable {
+    private final OffHeapEdgeStore arcs; // source, target and weight of every arc, row by row
+    private final long[] offsets; // row v spans the arcs offsets[v] .. offsets[v + 1] - 1
+
+    Adjacency(OffHeapEdgeStore arcs, long[] offsets){
+      this.arcs = arcs;
+      this.offsets = offsets;
+    }
+
+    /**
+      Returns the number of vertices.
+    */
+
+    public int vertexCount(){
+      return offsets.length - 1;
+    }
+
+    /**
+      Returns the number of arcs, an undirected edge being one arc in each of its rows.
+    */
+
+    public long arcCount(){
+      return arcs.size();
+    }
+
+    /**
+      Returns the index of the first arc of the row of `v`, `offset(vertexCount())` being the number of arcs.
+    */
+
+    public long offset(int v){
+      return offsets[v];
+    }
+
+    /**
+      Returns the number of arcs in the row of `v`.
+    */
+
+    public long degree(int v){
+      return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+      Returns the target vertex id of an arc.
+    */
+
+    public int target(long a){
+      return arcs.target(a);
+    }
+
+    /**
+      Returns the weight of an arc.
+    */
+
+    public int weight(long a){
+      return arcs.weight(a);
+    }
+
+    /**
+      Releases the arcs, see `OffHeapEdgeStore.close`.
+    */
+
+    @Override
+    public void close(){
+      arcs.close();
+    }
+  }
+
+  private OffHeapEdgeStore(int vertexCount, boolean directed, boolean weighted, String path, FileChannel channel){
+    if(vertexCount < 0) throw new IllegalArgumentException("Invalid number of vertices: " + vertexCount);
+    this.vertexCount = vertexCount;
+    this.directed = directed;
+    this.weighted = weighted;
+    this.path = path;
+    this.channel = channel;
+    this.chunks = new ByteBuffer[1];
+  }
+
+  /**
+    Constructs an empty edge store of `n` vertices held in direct memory.
+
+    Desc: Even with primitive arrays (see `IntGraph` and `CSRGraph`), hundreds of millions of edges make arrays of gigabytes that the garbage collector has to copy or scan, and a Java array holds at most 2^31 - 1 elements.
+    This store keeps every edge as a 12 bytes record (source, target and weight, little-endian ints) in direct `ByteBuffer`s of 2^22 edges, outside the Java heap,
+    so the heap only holds the chunk references and the number of edges grows past 2^31.
+    A new chunk is allocated when the previous one is full, so adding an edge is O(1) and nothing is copied.
+    The direct memory is limited by `-XX:MaxDirectMemorySize` (by default the maximum heap size) and a chunk is released when the garbage collector reclaims its buffer,
+    use `create` to back the edges with a file instead.
+
+    @param n The number of vertices.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges carry weights.
+    @return The empty store.
+    @throws IllegalArgumentException If the number of vertices is negative.
+  */
+
+  public static OffHeapEdgeStore allocate(int n, boolean directed, boolean weighted){
+    return new OffHeapEdgeStore(n, directed, weighted, null, null);
+  }
+
+  /**
+    Constructs an empty edge store of `n` vertices backed by a memory-mapped file.
+
+    Desc: The file starts with a 32 bytes header (the "EDGE" magic, the format version, the flags, the vertex count and the edge count) followed by the edge records, all little-endian.
+    Each chunk of records is mapped with `FileChannel.map` when first reached, so the edges live in the page cache and the operating system writes them back and evicts them as needed:
+    the store can hold more edges than the physical memory, and `open` maps them back without reading them.
+    The header is written by `flush` and `close`, and `close` trims the file to the records actually stored.
+    If the file cannot be created, an error message is printed and the edges are kept in direct memory instead, as with `allocate`.
+
+    @param path The path of the file to create, an existing file is truncated.
+    @param n The number of vertices.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges carry weights.
+    @return The empty store.
+    @throws IllegalArgumentException If the number of vertices is negative.
+  */
+
+  public static OffHeapEdgeStore create(String path, int n, boolean directed, boolean weighted){
+    if(n < 0) throw new IllegalArgumentException("Invalid number of vertices: " + n);
+    try {
+      FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      OffHeapEdgeStore store = new OffHeapEdgeStore(n, directed, weighted, path, channel);
+      store.flush();
+      return store;
+    } catch (IOException e) {
+      System.out.println("An error occurred while creating the file, the edges are kept in direct memory: " + e.getMessage());
+      return allocate(n, directed, weighted);
+    }
+  }
+
+  /**
+    Opens an edge store file written by a store made with `create`.
+
+    Desc: Only the header is read, the records are mapped when first reached.
+    If the file cannot be read, an error message is printed and an empty store is returned.
+
+    @param path The path of the file to open.
+    @return The store of the file.
+    @throws IllegalArgumentException If the file is not an edge store file of a supported version, or is truncated.
+  */
+
+  public static OffHeapEdgeStore open(String path){
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      while(header.hasRemaining() && channel.read(header, header.position()) > 0);
+      header.flip();
+      if(header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) throw new IllegalArgumentException("Not an edge store file: " + path);
+      byte version = header.get();
+      if(version != VERSION) throw new IllegalArgumentException("Unsupported edge store file version: " + version);
+      int flags = header.get();
+      header.getShort();
+      int n = header.getInt();
+      header.getInt();
+      long m = header.getLong();
+      if(n < 0 || m < 0 || channel.size() < HEADER_SIZE + m * RECORD_SIZE) throw new IllegalArgumentException("Truncated edge store file: " + path);
+      OffHeapEdgeStore store = new OffHeapEdgeStore(n, (flags & DIRECTED) != 0, (flags & WEIGHTED) != 0, path, channel);
+      store.size = m;
+      return store;
+    } catch (IOException e) {
+      System.out.printf("An error occurred trying to read %s.\n", path);
+      e.printStackTrace();
+      release(channel);
+      return allocate(0, true, true);
+    } catch (IllegalArgumentException e) {
+      release(channel);
+      throw e;
+    }
+  }
+
+  /**
+    Reads an adjacency matrix file straight into a weighted edge store.
+
+    Desc: The non-zero elements streamed by `FileManipulation.streamAdjacentMatrix` are appended to the store as they are parsed, with vertex `i` being the row and column `i` of the matrix, as in `IntGraph.readAdjacentMatrix`.
+    Neither the matrix nor the edges go through the heap.
+    If the file cannot be read, an empty store is returned.
+
+    @param path The path to the file containing the adjacency matrix.
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param storePath The path of the file backing the store (see `create`), or null to keep the edges in direct memory.
+    @return The store of the matrix.
+    @throws IllegalArgumentException If the file contains an invalid value or the quantity of values read does not match the expected size.
+  */
+
+  public static OffHeapEdgeStore readAdjacentMatrix(String path, boolean directed, String storePath){
+    OffHeapEdgeStore[] store = {null};
+    try {
+      FileManipulation.streamAdjacentMatrix(path, new EdgeSink() {
+        public void begin(int vertices){
+          store[0] = storePath == null ? allocate(vertices, directed, true) : create(storePath, vertices, directed, true);
+        }
+
+        public void edge(int source, int target, int weight){
+          store[0].add(source, target, weight);
+        }
+      });
+    } catch (RuntimeException e) {
+      if(store[0] != null) store[0].close();
+      throw e;
+    }
+    return store[0] != null ? store[0] : allocate(0, directed, true);
+  }
+
+  /**
+    Appends an edge between two vertices with the given weight.
+
+    Desc: The edge is written at the end of the last chunk, a new chunk being allocated or mapped when it is full.
+    An undirected edge is stored once, `adjacency` lists it in the rows of both of its endpoints.
+    If the store is not weighted, a non-zero weight is dropped and a message is printed, as in `Graph.putEdge`.
+
+    @param v The id of the source vertex.
+    @param u The id of the target vertex.
+    @param weight The weight of the edge.
+    @throws NoSuchElementException if either of the vertices is not found in the graph.
+    @throws UncheckedIOException if the file backing the store cannot be extended.
+  */
+
+  public void add(int v, int u, int weight){
+    if(v < 0 || v >= this.vertexCount || u < 0 || u >= this.vertexCount) throw new NoSuchElementException(String.format("Neither %d or %d was found.", v, u));
+    if(!this.weighted && weight != 0){
+      System.out.println(String.format("Non-weighted graph, the given weight (%d) was not considered.", weight));
+      weight = 0;
+    }
+    put(this.size, v, u, weight);
+    this.size++;
+  }
+
+  /**
+    Returns the number of vertices.
+  */
+
+  public int vertexCount(){
+    return this.vertexCount;
+  }
+
+  /**
+    Returns the number of edges.
+  */
+
+  public long size(){
+    return this.size;
+  }
+
+  /**
+    Returns whether the graph is directed.
+  */
+
+  public boolean isDirected(){
+    return this.directed;
+  }
+
+  /**
+    Returns whether the edges carry weights.
+  */
+
+  public boolean isWeighted(){
+    return this.weighted;
+  }
+
+  /**
+    Returns the source vertex id of an edge.
+
+    @param e The index of the edge, from 0 to `size() - 1`.
+    @throws IndexOutOfBoundsException if there is no such edge.
+  */
+
+  public int source(long e){
+    return get(Objects.checkIndex(e, this.size), 0);
+  }
+
+  /**
+    Returns the target vertex id of an edge.
+
+    @param e The index of the edge, from 0 to `size() - 1`.
+    @throws IndexOutOfBoundsException if there is no such edge.
+  */
+
+  public int target(long e){
+    return get(Objects.checkIndex(e, this.size), 4);
+  }
+
+  /**
+    Returns the weight of an edge.
+
+    @param e The index of the edge, from 0 to `size() - 1`.
+    @throws IndexOutOfBoundsException if there is no such edge.
+  */
+
+  public int weight(long e){
+    return get(Objects.checkIndex(e, this.size), 8);
+  }
+
+  /**
+    Streams every edge of the store to a sink.
+
+    Desc: The sink first receives the number of vertices, then every edge in the order of the store, read chunk by chunk with absolute gets, so nothing is copied to the heap.
+
+    @param sink The sink receiving the vertices and the edges.
+  */
+
+  public void edges(EdgeSink sink){
+    sink.begin(this.vertexCount);
+    for(long first = 0; first < this.size; first += CHUNK_EDGES){
+      ByteBuffer chunk = chunk((int) (first >>> CHUNK_SHIFT));
+      int end = (int) Math.min(CHUNK_EDGES, this.size - first) * RECORD_SIZE;
+      for(int at = 0; at < end; at += RECORD_SIZE) sink.edge(chunk.getInt(at), chunk.getInt(at + 4), chunk.getInt(at + 8));
+    }
+  }
+
+  /**
+    Reorders the edges of the store by ascending weight.
+
+    Desc: The edges are sorted with a least significant digit radix sort on the weight minus the smallest weight, 16 bits per pass, between the store and a scratch store of the same kind
+    (direct memory, or a file next to `path` deleted afterwards).
+    Each pass counts the edges of each digit, turns the counts into offsets and scatters every edge to the offset of its digit, so it is O(|E|) and stable:
+    edges of equal weight keep their order.
+    When the weights span at most 2^16 values, like the 1 to `matriceElementBoundary` weights of the generated files, a single pass is needed and the scratch store is copied back in bulk, otherwise two passes end in the store itself.
+    Only the 2^16 counts are kept on the heap.
+
+    @throws UncheckedIOException if the scratch file cannot be mapped.
+  */
+
+  public void sortByWeight(){
+    if(this.size < 2) return;
+    int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+    for(long e = 0; e < this.size; e++){
+      int w = get(e, 8);
+      min = Math.min(min, w);
+      max = Math.max(max, w);
+    }
+    int passes = ((long) max - min) >>> DIGIT_BITS == 0 ? 1 : 2;
+
+    OffHeapEdgeStore scratch = this.path == null ? allocate(this.vertexCount, this.directed, this.weighted) : create(this.path + ".sort", this.vertexCount, this.directed, this.weighted);
+    scratch.size = this.size;
+    try {
+      OffHeapEdgeStore from = this, to = scratch;
+      for(int pass = 0; pass < passes; pass++){
+        int shift = pass * DIGIT_BITS;
+        long[] start = new long[(1 << DIGIT_BITS) + 1];
+        for(long e = 0; e < this.size; e++) start[digit(from.get(e, 8), min, shift) + 1]++;
+        for(int d = 1; d < start.length; d++) start[d] += start[d - 1];
+        for(long e = 0; e < this.size; e++){
+          int w = from.get(e, 8);
+          to.put(start[digit(w, min, shift)]++, from.get(e, 0), from.get(e, 4), w);
+        }
+        OffHeapEdgeStore swap = from;
+        from = to;
+        to = swap;
+      }
+      if(from != this){
+        for(long first = 0; first < this.size; first += CHUNK_EDGES){
+          int c = (int) (first >>> CHUNK_SHIFT);
+          chunk(c).put(0, scratch.chunk(c), 0, (int) Math.min(CHUNK_EDGES, this.size - first) * RECORD_SIZE);
+        }
+      }
+    } finally {
+      scratch.discard();
+    }
+  }
+
+  /**
+    Groups the edges of the store by source vertex into an off-heap adjacency, for traversals.
+
+    Desc: A first pass counts the arcs of each vertex into the row offsets, a second pass writes every arc at the next position of its row, so the rows keep the order of the store.
+    In an undirected store an edge is listed in the rows of both of its endpoints, except a self-loop which is listed once, as in `IntGraph`.
+    The arcs are written to a new store of the same layout, the store itself is left untouched.
+
+    @param path The path of the file backing the arcs (see `create`), or null to keep them in direct memory.
+    @return The adjacency of the store.
+    @throws UncheckedIOException if the file of the arcs cannot be extended.
+  */
+
+  public Adjacency adjacency(String path){
+    int n = this.vertexCount;
+    long[] offsets = new long[n + 1];
+    for(long e = 0; e < this.size; e++){
+      int v = get(e, 0), u = get(e, 4);
+      offsets[v + 1]++;
+      if(!this.directed && v != u) offsets[u + 1]++;
+    }
+    for(int v = 1; v <= n; v++) offsets[v] += offsets[v - 1];
+
+    OffHeapEdgeStore arcs = path == null ? allocate(n, true, this.weighted) : create(path, n, true, this.weighted);
+    long[] next = Arrays.copyOf(offsets, n);
+    for(long e = 0; e < this.size; e++){
+      int v = get(e, 0), u = get(e, 4), w = get(e, 8);
+      arcs.put(next[v]++, v, u, w);
+      if(!this.directed && v != u) arcs.put(next[u]++, u, v, w);
+    }
+    arcs.size = offsets[n];
+    return new Adjacency(arcs, offsets);
+  }
+
+  /**
+    Writes the header of a file-backed store and forces its records to the file.
+
+    Desc: This method does nothing when the edges are kept in direct memory.
+    If an error occurs during the file writing process, an error message is printed.
+  */
+
+  public void flush(){
+    if(this.channel == null) return;
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      int flags = (this.directed ? DIRECTED : 0) | (this.weighted ? WEIGHTED : 0);
+      header.putInt(MAGIC).put(VERSION).put((byte) flags).putShort((short) 0).putInt(this.vertexCount).putInt(0).putLong(this.size).putLong(0).flip();
+      while(header.hasRemaining()) this.channel.write(header, header.position());
+      this.channel.force(false);
+    } catch (IOException e) {
+      System.out.println("An error occurred while writing the file: " + e.getMessage());
+    }
+  }
+
+  /**
+    Flushes and closes the store.
+
+    Desc: A file-backed store is trimmed to its header and records and its channel is closed, the file can be opened again with `open`.
+    The chunks are dropped, their direct memory or mappings are released when the garbage collector reclaims them, since Java 17 has no public way to unmap a buffer.
+    The store must not be used afterwards.
+  */
+
+  @Override
+  public void close(){
+    if(this.channel != null){
+      flush();
+      try {
+        this.channel.truncate(HEADER_SIZE + this.size * RECORD_SIZE);
+      } catch (IOException e) {
+        System.out.println("An error occurred while writing the file: " + e.getMessage());
+      }
+      release(this.channel);
+      this.channel = null;
+    }
+    this.chunks = new ByteBuffer[1];
+  }
+
+  /**
+    Returns a string representation of the store.
+
+    @return A string describing the size and settings of the store.
+  */
+
+  @Override
+  public String toString(){
+    return String.format("OffHeapEdgeStore %s and %s with |V| = %d and |E| = %d in %s",
+      this.directed ? "directed" : "undirected", this.weighted ? "weighted" : "unweighted", this.vertexCount, this.size, this.path == null ? "direct memory" : this.path);
+  }
+
+  /**
+    Returns the chunk of the given index, allocating or mapping it if it is the first access.
+
+    @throws UncheckedIOException if the file backing the store cannot be mapped.
+  */
+
+  private ByteBuffer chunk(int c){
+    if(c >= this.chunks.length) this.chunks = Arrays.copyOf(this.chunks, Math.max(c + 1, this.chunks.length * 2));
+    ByteBuffer chunk = this.chunks[c];
+    if(chunk == null){
+      try {
+        chunk = this.channel == null ? ByteBuffer.allocateDirect((int) CHUNK_BYTES)
+          : this.channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + c * CHUNK_BYTES, CHUNK_BYTES);
+      } catch (IOException e) {
+        throw new UncheckedIOException("An error occurred while mapping " + this.path, e);
+      }
+      this.chunks[c] = chunk = chunk.order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return chunk;
+  }
+
+  /**
+    Returns one field of an edge, at byte 0 (source), 4 (target) or 8 (weight) of its record.
+  */
+
+  private int get(long e, int field){
+    return chunk((int) (e >>> CHUNK_SHIFT)).getInt((int) (e & (CHUNK_EDGES - 1)) * RECORD_SIZE + field);
+  }
+
+  /**
+    Writes the record of an edge.
+  */
+
+  private void put(long e, int source, int target, int weight){
+    ByteBuffer chunk = chunk((int) (e >>> CHUNK_SHIFT));
+    int at = (int) (e & (CHUNK_EDGES - 1)) * RECORD_SIZE;
+    chunk.putInt(at, source).putInt(at + 4, target).putInt(at + 8, weight);
+  }
+
+  /**
+    Returns the radix sort digit of a weight, `shift` bits above the smallest weight.
+  */
+
+  private static int digit(int weight, int min, int shift){
+    return (int) ((((long) weight - min) >>> shift) & ((1 << DIGIT_BITS) - 1));
+  }
+
+  /**
+    Closes a scratch store and deletes its file.
+  */
+
+  private void discard(){
+    String path = this.path;
+    this.size = 0;
+    close();
+    if(path == null) return;
+    try {
+      Files.deleteIfExists(Paths.get(path));
+    } catch (IOException e) {
+      System.out.println("An error occurred while deleting the file: " + e.getMessage());
+    }
+  }
+
+  /**
+    Closes a channel, an error message is printed if it fails.
+  */
+
+  private static void release(FileChannel channel){
+    if(channel == null) return;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      System.out.println("An error occurred while closing the file: " + e.getMessage());
+    }
+  }
+}
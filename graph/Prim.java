@@ -0,0 +1,125 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public abstract class Prim {
+  /**
+    Computes the Minimum Spanning Tree (MST) of a dense graph given as an adjacency matrix, using the O(|V|^2) array version of Prim's algorithm.
+
+    Desc: This method works directly on the `int` adjacency matrix, as read from the files under `files/`, without building any vertex or edge object.
+    An entry of 0 means that there is no edge, any other value is the weight of the edge. The graph is treated as undirected,
+    so when both `adjMatrix[i][j]` and `adjMatrix[j][i]` hold an edge the lighter of the two is used.
+    The method keeps, for every vertex outside the tree, the weight of its lightest edge into the tree (`key`) and the tree vertex at the other end (`parent`).
+    At each step it scans `key` for the lightest vertex outside the tree, adds it, and relaxes the keys of the remaining vertices through its matrix row.
+    If no vertex outside the tree is reachable, the next unvisited vertex starts a new tree, so disconnected inputs produce a spanning forest.
+    Since every step is a linear scan over arrays, this is the right algorithm when |E| is close to |V|^2, where a heap or a sort of the edges only adds overhead.
+
+    The time complexity of this method is O(|V|^2).
+
+    @param adjMatrix The square adjacency matrix of the graph.
+    @return The parent of each vertex in the spanning forest, -1 for the root of each tree.
+    @throws IllegalArgumentException if the matrix is not square.
+  */
+
+  public static int[] MST(int[][] adjMatrix){
+    int n = adjMatrix.length;
+    for(int[] row : adjMatrix)
+      if(row.length != n) throw new IllegalArgumentException("The adjacency matrix must be square.");
+
+    int[] parent = new int[n];
+    int[] key = new int[n];
+    boolean[] reached = new boolean[n];
+    boolean[] inTree = new boolean[n];
+    Arrays.fill(parent, -1);
+
+    for(int step = 0; step < n; step++){
+      int v = -1;
+      for(int u = 0; u < n; u++)
+        if(!inTree[u] && (v < 0 || (reached[u] && (!reached[v] || key[u] < key[v])))) v = u;
+      inTree[v] = true;
+
+      int[] row = adjMatrix[v];
+      for(int u = 0; u < n; u++){
+        if(inTree[u]) continue;
+        int w = lighter(row[u], adjMatrix[u][v]);
+        if(w != 0 && (!reached[u] || w < key[u])){
+          key[u] = w;
+          parent[u] = v;
+          reached[u] = true;
+        }
+      }
+    }
+    return parent;
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a given graph using Prim's algorithm with an indexed binary heap.
+
+    Desc: This method freezes the `graph` into a `CSRGraph` and delegates to `MST(CSRGraph)`.
+
+    @param graph The graph for which to compute the MST.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+    @throws IllegalArgumentException if the graph is directed.
+  */
+
+  public static <T> Set<Edge<T>> MST(Graph<T> graph){
+    return MST(graph.freeze());
+  }
+
+  /**
+    Computes the Minimum Spanning Tree (MST) of a frozen graph using Prim's algorithm with an indexed binary heap.
+
+    Desc: This method grows the tree from a start vertex, keeping the vertices next to the tree in an `IndexedMinHeap` keyed by the weight of their lightest edge into the tree.
+    Each time the lightest vertex is polled, the edge that reached it is added to the tree and its neighbors are offered to the heap, which lowers their key in place (decrease-key) instead of inserting duplicates.
+    When the heap runs empty while some vertex has not been reached, that vertex starts a new tree, so disconnected graphs produce a spanning forest.
+    The edges are added to the resulting set in the order in which their vertices join the tree, oriented from the tree vertex to the new one.
+    This is the variant to use on sparse graphs, for dense adjacency matrices prefer `MST(int[][])`.
+
+    The time complexity of this method is O(|E| log |V|).
+
+    @param graph The frozen graph for which to compute the MST.
+    @return A set of edges forming the Minimum Spanning Tree (or forest) of the graph.
+    @throws IllegalArgumentException if the graph is directed.
+  */
+
+  public static <T> Set<Edge<T>> MST(CSRGraph<T> graph){
+    if(graph.isDirected()) throw new IllegalArgumentException("Prim's algorithm requires an undirected graph.");
+    int n = graph.vertexCount();
+    int[] parent = new int[n];
+    int[] via = new int[n];
+    boolean[] inTree = new boolean[n];
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+    Set<Edge<T>> tree = new LinkedHashSet<>();
+
+    for(int root = 0; root < n; root++){
+      if(inTree[root]) continue;
+      parent[root] = -1;
+      heap.offer(root, Long.MIN_VALUE);
+      while(!heap.isEmpty()){
+        int v = heap.poll();
+        inTree[v] = true;
+        if(parent[v] >= 0) tree.add(graph.toEdge(parent[v], via[v]));
+        for(int a = graph.offset(v); a < graph.offset(v + 1); a++){
+          int u = graph.target(a);
+          if(!inTree[u] && heap.offer(u, graph.weight(a))){
+            parent[u] = v;
+            via[u] = a;
+          }
+        }
+      }
+    }
+    return tree;
+  }
+
+  /**
+    Returns the lighter of two matrix entries, where 0 means that there is no edge.
+  */
+
+  private static int lighter(int w1, int w2){
+    if(w1 == 0) return w2;
+    if(w2 == 0) return w1;
+    return Math.min(w1, w2);
+  }
+}
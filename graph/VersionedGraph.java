@@ -0,0 +1,426 @@
+package graph;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class VersionedGraph<T> {
+  final static int CHUNK_BITS = 6; // log2 of the number of vertex slots per chunk
+  final static int CHUNK_SIZE = 1 << CHUNK_BITS; // Number of vertex slots per chunk
+
+  private final boolean directed; // indicates whether the graph is directed or undirected.
+  private final boolean weighted; // indicates whether the graph is weighted or unweighted.
+  private final ConcurrentHashMap<Vertex<T>, Integer> ids; // The slot of every vertex that a live version or the working state may hold, shared by every version
+  private final ArrayDeque<Integer> freeIds; // The slots of removed vertices that no live version holds any more, given to the next new vertices
+  private final ArrayDeque<Retired<T>> retired; // The removed vertices that older versions may still hold, in epoch order
+  private final ArrayDeque<GraphVersion<T>> superseded; // The versions replaced by a newer one that may still be pinned, in epoch order
+  private Chunk<T>[] chunks; // The chunks of the working state
+  private boolean chunksOwned; // whether `chunks` was copied since the last publication
+  private int nextId; // The slot given to the next new vertex
+  private int vertexCount; // The number of vertices of the working state
+  private int edgeCount; // The number of edges of the working state
+  private long epoch; // The epoch of the working state, every published version has a smaller one
+  private volatile GraphVersion<T> current; // The latest published version
+
+  /**
+    The adjacency of one vertex in one epoch.
+
+    Desc: An adjacency created in the working epoch is updated in place, one created in an older epoch belongs to published versions and is copied before any change.
+  */
+
+  static class Adjacency<T> {
+    final long epoch; // The epoch that created this adjacency
+    final Vertex<T> vertex; // The vertex
+    Edge<T>[] out; // The edges leaving the vertex, in the first `outSize` slots
+    int outSize;
+    Edge<T>[] in; // The edges arriving at the vertex, in the first `inSize` slots
+    int inSize;
+
+    Adjacency(long epoch, Vertex<T> vertex, Edge<T>[] out, int outSize, Edge<T>[] in, int inSize){
+      this.epoch = epoch;
+      this.vertex = vertex;
+      this.out = out;
+      this.outSize = outSize;
+      this.in = in;
+      this.inSize = inSize;
+    }
+  }
+
+  /**
+    A fixed-size group of vertex slots, shared by every version that did not change any of them.
+  */
+
+  static class Chunk<T> {
+    final long epoch; // The epoch that created this chunk
+    final Adjacency<T>[] slots; // The adjacency of each vertex slot, null when the slot holds no vertex
+
+    Chunk(long epoch, Adjacency<T>[] slots){
+      this.epoch = epoch;
+      this.slots = slots;
+    }
+  }
+
+  /**
+    A removed vertex whose slot is kept until no version that holds it can be read any more.
+  */
+
+  static class Retired<T> {
+    final long epoch; // The working epoch in which the vertex was removed, every version older than it holds the vertex
+    final Vertex<T> vertex; // The vertex
+    final int id; // The slot of the vertex
+
+    Retired(long epoch, Vertex<T> vertex, int id){
+      this.epoch = epoch;
+      this.vertex = vertex;
+      this.id = id;
+    }
+  }
+
+  /**
+    Constructs an empty versioned graph with specified properties.
+
+    Desc: A versioned graph is written by one thread at a time (its writes are `synchronized`) and read through immutable versions.
+    Writes go to a working state that readers never see, `publish` turns it into a new `GraphVersion` and `pin` hands the latest version to a reader without taking any lock.
+    The state is persistent: vertices live in slots grouped into chunks of `CHUNK_SIZE`, and the first write to a chunk or to the adjacency of a vertex after a publication copies it,
+    so a version shares every chunk and adjacency it did not change with the previous one, and a publication only costs the copies of what changed since the last one.
+    Versions are not kept by the graph, an old version is reclaimed once its last reader closes it (see `GraphVersion.close`).
+    The slot of a removed vertex is reused by a later `addVertex` once every version holding the vertex has been reclaimed, which `publish` checks,
+    so the slots and chunks stay bounded by the largest number of vertices held at once by the live versions, however many vertices come and go.
+
+    @param directed Specifies whether the graph is directed (true) or undirected (false).
+    @param weighted Specifies whether the edges in the graph are weighted or not.
+  */
+
+  public VersionedGraph(boolean directed, boolean weighted){
+    this.directed = directed;
+    this.weighted = weighted;
+    this.ids = new ConcurrentHashMap<>();
+    this.freeIds = new ArrayDeque<>();
+    this.retired = new ArrayDeque<>();
+    this.superseded = new ArrayDeque<>();
+    this.chunks = newChunks(0);
+    this.publish();
+  }
+
+  /**
+    Constructs an empty undirected and unweighted versioned graph.
+  */
+
+  public VersionedGraph(){
+    this(false, false);
+  }
+
+  /**
+    Adds a vertex to the working state of the graph.
+
+    Desc: A new vertex takes a freed slot if there is one, the next unused slot otherwise. A vertex added back before its slot was freed takes its old slot again.
+
+    @param data The data value of the vertex to be added.
+  */
+
+  public synchronized void addVertex(T data){
+    Vertex<T> v = new Vertex<T>(data);
+    Integer id = this.ids.get(v);
+    if(id == null){
+      id = this.freeIds.isEmpty() ? this.nextId++ : this.freeIds.pop();
+      this.ids.put(v, id);
+    } else if(adjacency(id) != null){
+      return;
+    } else {
+      int slot = id;
+      this.retired.removeIf(r -> r.id == slot);
+    }
+    Chunk<T> chunk = writableChunk(id);
+    chunk.slots[id & (CHUNK_SIZE - 1)] = new Adjacency<T>(this.epoch, v, newEdges(), 0, newEdges(), 0);
+    this.vertexCount++;
+  }
+
+  /**
+    Removes a vertex, together with every edge incident to it, from the working state of the graph.
+
+    Desc: The slot of the vertex is retired rather than freed, since the published versions may still hold the vertex, and a chunk left without any vertex is dropped.
+
+    @param data The data value of the vertex to be removed.
+    @throws NoSuchElementException if the vertex with the specified data value is not found.
+  */
+
+  public synchronized void removeVertex(T data){
+    Integer id = this.ids.get(new Vertex<T>(data));
+    Adjacency<T> a = id == null || adjacency(id) == null ? null : writable(id);
+    if(a == null) throw new NoSuchElementException(String.format("Vertex \"%s\" was not found", data));
+    for(int i = 0; i < a.outSize; i++){
+      Edge<T> e = a.out[i];
+      if(!e.getTarget().equals(a.vertex)) removeIn(writable(this.ids.get(e.getTarget())), e);
+      this.edgeCount--;
+    }
+    for(int i = 0; i < a.inSize; i++){
+      Edge<T> e = a.in[i];
+      if(e.getSource().equals(a.vertex)) continue;
+      removeOut(writable(this.ids.get(e.getSource())), e);
+      this.edgeCount--;
+    }
+    Chunk<T> chunk = writableChunk(id);
+    chunk.slots[id & (CHUNK_SIZE - 1)] = null;
+    if(Arrays.stream(chunk.slots).allMatch(slot -> slot == null)) this.chunks[id >>> CHUNK_BITS] = null;
+    this.retired.add(new Retired<T>(this.epoch, a.vertex, id));
+    this.vertexCount--;
+  }
+
+  /**
+    Adds an edge between two vertices, with optional weight, to the working state of the graph.
+
+    Desc: This method behaves like `Graph.putEdge`: an edge already present is not added twice, and the weight is dropped with a message if the graph is not weighted.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+    @param weight The weight of the edge (optional).
+    @throws NoSuchElementException if either of the vertices is not found in the graph.
+  */
+
+  public synchronized void putEdge(T vData, T uData, Integer weight){
+    Integer newWeight = weight;
+
+    if(!this.weighted && weight != null){
+      System.out.println(String.format("Non-weighted graph, the given weight (%s) was not considered.", weight));
+      newWeight = null;
+    }
+
+    Integer v = this.ids.get(new Vertex<T>(vData)), u = this.ids.get(new Vertex<T>(uData));
+    if(v == null || u == null || adjacency(v) == null || adjacency(u) == null)
+      throw new NoSuchElementException(String.format("Neither %s or %s was found.", vData, uData));
+    Adjacency<T> source = adjacency(v);
+    Edge<T> e = new Edge<T>(source.vertex, adjacency(u).vertex, newWeight, this.directed);
+    if(indexOf(source.out, source.outSize, e) >= 0) return;
+
+    source = writable(v);
+    if(source.outSize == source.out.length) source.out = Arrays.copyOf(source.out, source.outSize * 2);
+    source.out[source.outSize++] = e;
+    Adjacency<T> target = writable(u);
+    if(target.inSize == target.in.length) target.in = Arrays.copyOf(target.in, target.inSize * 2);
+    target.in[target.inSize++] = e;
+    this.edgeCount++;
+  }
+
+  /**
+    Adds an unweighted edge between two vertices to the working state of the graph.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+  */
+
+  public void putEdge(T vData, T uData){
+    this.putEdge(vData, uData, null);
+  }
+
+  /**
+    Removes an edge between two vertices with the specified weight from the working state of the graph.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+    @param weight The weight of the edge.
+    @throws NoSuchElementException if the edge is not found in the graph.
+  */
+
+  public synchronized void removeEdge(T vData, T uData, Integer weight){
+    Vertex<T> vertexV = new Vertex<T>(vData), vertexU = new Vertex<T>(uData);
+    Edge<T> e = new Edge<T>(vertexV, vertexU, weight, this.directed);
+    Integer v = this.ids.get(vertexV), u = this.ids.get(vertexU);
+    Adjacency<T> source = v == null ? null : adjacency(v);
+    if(source == null || u == null || adjacency(u) == null || indexOf(source.out, source.outSize, e) < 0)
+      throw new NoSuchElementException(String.format("Edge %s was not found.", e.toString()));
+    removeOut(writable(v), e);
+    removeIn(writable(u), e);
+    this.edgeCount--;
+  }
+
+  /**
+    Removes an unweighted edge between two vertices from the working state of the graph.
+
+    @param vData The data value of the first vertex.
+    @param uData The data value of the second vertex.
+  */
+
+  public void removeEdge(T vData, T uData){
+    this.removeEdge(vData, uData, null);
+  }
+
+  /**
+    Adds the vertices 0 to `n-1` to the working state of the graph.
+
+    @param n The number of vertices.
+  */
+
+  @SuppressWarnings("unchecked")
+  public void initializeGraph(int n){
+    for(int i = 0; i < n; i++){
+      this.addVertex((T) Integer.valueOf(i));
+    }
+  }
+
+  /**
+    Publishes the working state as a new version.
+
+    Desc: The new version takes the current chunks as they are, and the working state moves to the next epoch,
+    so the next write to any chunk or adjacency copies it instead of changing what the version sees.
+    Readers that pinned an older version keep reading it unchanged.
+    The older versions that no reader pins any more are reclaimed, and the slots of the vertices removed since the oldest version still pinned are freed.
+
+    @return The epoch of the published version.
+  */
+
+  public synchronized long publish(){
+    if(this.current != null) this.superseded.add(this.current);
+    this.current = new GraphVersion<T>(this, this.epoch, this.chunks, this.vertexCount, this.edgeCount, this.ids, this.directed, this.weighted);
+    this.chunksOwned = false;
+    this.superseded.removeIf(GraphVersion::reclaim);
+    long oldest = this.superseded.isEmpty() ? this.epoch : this.superseded.peek().getEpoch();
+    while(!this.retired.isEmpty() && this.retired.peek().epoch <= oldest){
+      Retired<T> r = this.retired.poll();
+      this.ids.remove(r.vertex, r.id);
+      this.freeIds.push(r.id);
+    }
+    return this.epoch++;
+  }
+
+  /**
+    Pins the latest published version for reading.
+
+    Desc: This method takes no lock and never waits for a writer.
+    The returned version is immutable and must be closed once read, preferably with a try-with-resources statement, so that it can be reclaimed once it is no longer the latest.
+
+    @return The latest published version, pinned.
+  */
+
+  public GraphVersion<T> pin(){
+    while(true){
+      GraphVersion<T> version = this.current;
+      if(version.acquire()) return version;
+    }
+  }
+
+  /**
+    Returns whether a version is the latest published one.
+  */
+
+  boolean isCurrent(GraphVersion<T> version){
+    return this.current == version;
+  }
+
+  /**
+    Returns whether the graph is directed.
+
+    @return true if the graph is directed, false otherwise.
+  */
+
+  public boolean isDirected(){
+    return directed;
+  }
+
+  /**
+    Returns whether the graph is weighted.
+
+    @return true if the graph is weighted, false otherwise.
+  */
+
+  public boolean isWeighted(){
+    return weighted;
+  }
+
+  /**
+    Returns the adjacency of a slot in the working state, without copying it.
+  */
+
+  private Adjacency<T> adjacency(int id){
+    int c = id >>> CHUNK_BITS;
+    if(c >= this.chunks.length || this.chunks[c] == null) return null;
+    return this.chunks[c].slots[id & (CHUNK_SIZE - 1)];
+  }
+
+  /**
+    Returns the adjacency of a slot in the working state, copied first if it belongs to a published version.
+  */
+
+  private Adjacency<T> writable(int id){
+    Chunk<T> chunk = writableChunk(id);
+    int slot = id & (CHUNK_SIZE - 1);
+    Adjacency<T> a = chunk.slots[slot];
+    if(a != null && a.epoch != this.epoch){
+      a = new Adjacency<T>(this.epoch, a.vertex, Arrays.copyOf(a.out, Math.max(a.outSize, 1)), a.outSize, Arrays.copyOf(a.in, Math.max(a.inSize, 1)), a.inSize);
+      chunk.slots[slot] = a;
+    }
+    return a;
+  }
+
+  /**
+    Returns the chunk of a slot in the working state, copied first (together with the chunk array) if it belongs to a published version.
+  */
+
+  private Chunk<T> writableChunk(int id){
+    int c = id >>> CHUNK_BITS;
+    if(!this.chunksOwned || c >= this.chunks.length){
+      this.chunks = Arrays.copyOf(this.chunks, Math.max(this.chunks.length, c + 1));
+      this.chunksOwned = true;
+    }
+    Chunk<T> chunk = this.chunks[c];
+    if(chunk == null) chunk = new Chunk<T>(this.epoch, newSlots());
+    else if(chunk.epoch != this.epoch) chunk = new Chunk<T>(this.epoch, chunk.slots.clone());
+    this.chunks[c] = chunk;
+    return chunk;
+  }
+
+  /**
+    Removes an edge from the outgoing edges of a writable adjacency, by moving the last edge into its place.
+  */
+
+  private static <T> void removeOut(Adjacency<T> a, Edge<T> e){
+    int i = indexOf(a.out, a.outSize, e);
+    a.out[i] = a.out[--a.outSize];
+    a.out[a.outSize] = null;
+  }
+
+  /**
+    Removes an edge from the incoming edges of a writable adjacency, by moving the last edge into its place.
+  */
+
+  private static <T> void removeIn(Adjacency<T> a, Edge<T> e){
+    int i = indexOf(a.in, a.inSize, e);
+    a.in[i] = a.in[--a.inSize];
+    a.in[a.inSize] = null;
+  }
+
+  /**
+    Returns the index of an edge among the first `size` edges of an array, -1 if it is absent.
+  */
+
+  static <T> int indexOf(Edge<T>[] edges, int size, Object e){
+    for(int i = 0; i < size; i++) if(edges[i].equals(e)) return i;
+    return -1;
+  }
+
+  /**
+    Allocates the chunk array of a graph.
+  */
+
+  @SuppressWarnings("unchecked")
+  private static <T> Chunk<T>[] newChunks(int length){
+    return (Chunk<T>[]) new Chunk<?>[length];
+  }
+
+  /**
+    Allocates the adjacency slots of a new chunk.
+  */
+
+  @SuppressWarnings("unchecked")
+  private static <T> Adjacency<T>[] newSlots(){
+    return (Adjacency<T>[]) new Adjacency<?>[CHUNK_SIZE];
+  }
+
+  /**
+    Allocates the edge array of a new adjacency.
+  */
+
+  @SuppressWarnings("unchecked")
+  private static <T> Edge<T>[] newEdges(){
+    return (Edge<T>[]) new Edge<?>[1];
+  }
+}
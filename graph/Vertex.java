@@ -3,6 +3,7 @@ import java.util.Objects;
 
 class Vertex<T>{
   private T data; // data payload of the vertex
+  final int id; // dense id given by the `VertexDictionary` of the graph holding the vertex, -1 if the vertex was not interned
 
   /**
     Constructs a new vertex with the given data.
@@ -15,7 +16,21 @@ class Vertex<T>{
   */
 
   Vertex(T data){
+    this(data, -1);
+  }
+
+  /**
+    Constructs a new vertex with the given data and dense id.
+
+    Desc: This constructor is used by `VertexDictionary` to intern the vertices of a `Graph`, every edge of the graph then refers to that single vertex object.
+
+    @param data The data associated with the vertex.
+    @param id The dense id of the vertex in its graph.
+  */
+
+  Vertex(T data, int id){
     this.data = data;
+    this.id = id;
   }
 
   /**
@@ -38,6 +53,7 @@ class Vertex<T>{
     Desc: This method sets the data associated with the vertex to the specified `data` value. 
     It updates the `data` field of the vertex with the provided value. 
     The data can be of any type `T` depending on the graph implementation.
+    The data of a vertex interned by a graph must not be changed, since the graph looks the vertex up by its data.
 
     @param data The new data to be associated with the vertex.
   */
@@ -81,13 +97,14 @@ class Vertex<T>{
     The `Objects.hash()` method generates a hash code by combining the hash codes of the provided objects.
     By using the `data` field as the argument for computing the hash code, the implementation ensures that vertices with equal data will have the same hash code, which is important for consistent hash-based data structures and algorithms.
     The computed hash code is returned as the result.
+    It is computed inline as `31 + hash(data)`, the value `Objects.hash(data)` returns, without allocating the varargs array.
 
     @return The hash code value for this vertex.
   */
 
   @Override
   public int hashCode() {
-    return Objects.hash(data);
+    return 31 + Objects.hashCode(data);
   }
 
   /**
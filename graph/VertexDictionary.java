@@ -0,0 +1,114 @@
+package graph;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+class VertexDictionary<T> {
+  private final Map<T, Vertex<T>> vertices; // The interned vertex of each data value
+  private Vertex<T>[] byId; // The vertex holding each id, null for the free ids
+  private int bound; // One more than the highest id ever given since the last `clear`
+  private int[] free; // The ids released by `remove`, reused before new ones
+  private int freeCount; // The number of ids in `free`
+
+  /**
+    Constructs an empty dictionary.
+
+    Desc: The dictionary interns every data value of a graph into a single `Vertex` holding a dense int id, from 0 to the number of vertices ever added minus one.
+    The ids of removed vertices are reused by the next additions, so the ids stay below the peak number of vertices and can index plain arrays or lists.
+    Looking a vertex up hashes its data value once and allocates nothing, and the `Vertex` returned is shared by every edge of the vertex.
+  */
+
+  VertexDictionary(){
+    this.vertices = new HashMap<>();
+    this.byId = newVertices(16);
+    this.free = new int[16];
+  }
+
+  /**
+    Interns a new data value.
+
+    @param data The data value of the vertex.
+    @return The new vertex, or null if the data value is already interned.
+  */
+
+  Vertex<T> add(T data){
+    if(this.vertices.containsKey(data)) return null;
+    int id = this.freeCount > 0 ? this.free[--this.freeCount] : this.bound++;
+    if(id == this.byId.length) this.byId = Arrays.copyOf(this.byId, id * 2);
+    Vertex<T> v = new Vertex<T>(data, id);
+    this.byId[id] = v;
+    this.vertices.put(data, v);
+    return v;
+  }
+
+  /**
+    Returns the interned vertex of a data value.
+
+    @param data The data value of the vertex.
+    @return The vertex, or null if the data value is not interned.
+  */
+
+  Vertex<T> get(Object data){
+    return this.vertices.get(data);
+  }
+
+  /**
+    Returns the vertex holding an id.
+
+    @param id The id of the vertex.
+    @return The vertex, or null if no vertex holds the id.
+  */
+
+  Vertex<T> vertex(int id){
+    return id < this.bound ? this.byId[id] : null;
+  }
+
+  /**
+    Removes an interned vertex and releases its id.
+
+    @param v The vertex to remove, as returned by `add` or `get`.
+  */
+
+  void remove(Vertex<T> v){
+    this.vertices.remove(v.getData());
+    this.byId[v.id] = null;
+    if(this.freeCount == this.free.length) this.free = Arrays.copyOf(this.free, this.freeCount * 2);
+    this.free[this.freeCount++] = v.id;
+  }
+
+  /**
+    Removes every vertex, the next vertices get the ids 0, 1, 2... again.
+  */
+
+  void clear(){
+    this.vertices.clear();
+    Arrays.fill(this.byId, 0, this.bound, null);
+    this.bound = 0;
+    this.freeCount = 0;
+  }
+
+  /**
+    Returns the number of interned vertices.
+  */
+
+  int size(){
+    return this.vertices.size();
+  }
+
+  /**
+    Returns one more than the highest id in use or released, every id is below it.
+  */
+
+  int bound(){
+    return this.bound;
+  }
+
+  /**
+    Allocates the array of the vertices by id.
+  */
+
+  @SuppressWarnings("unchecked")
+  private static <T> Vertex<T>[] newVertices(int length){
+    return (Vertex<T>[]) new Vertex<?>[length];
+  }
+}